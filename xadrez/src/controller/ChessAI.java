@@ -1,90 +1,299 @@
 package controller;
 
+import model.board.Bitboards;
 import model.board.Board;
 import model.board.Move;
+import model.board.MoveGenerator;
+import model.board.MoveList;
+import model.board.PackedMove;
+import model.board.PieceSquareTables;
 import model.board.Position;
+import model.board.StaticExchange;
+import model.board.Zobrist;
 import model.pieces.*;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ChessAI {
     private final Game game;
     private final Random random = new Random();
 
+    private static final int MAX_PLY = 64;
+
+    // Lances legais da escolha simples, fora da busca
+    private final MoveList validMoves = new MoveList();
+
+    // Tabela de transposição mantida entre as buscas da mesma partida
+    private static final int DEFAULT_HASH_MB = 32;
+    private TranspositionTable transpositionTable;
+
+    // Livro de aberturas Polyglot, consultado antes da busca (null se não houver)
+    private PolyglotBook openingBook;
+
+    // Estrutura de peões já avaliada, compartilhada pelas threads como a tabela de transposição
+    private static final int PAWN_HASH_MB = 1;
+    private final PawnHashTable pawnHashTable = new PawnHashTable(PAWN_HASH_MB);
+
+    // Avaliações de folhas já calculadas (transposições entre as folhas)
+    private static final int EVAL_CACHE_MB = 2;
+    private final EvalCache evalCache = new EvalCache(EVAL_CACHE_MB);
+
+    // Threads de busca (Lazy SMP); a de índice 0 é a principal
+    private SearchWorker[] workers;
+
+    // Modo fork/join: só divide nós com pelo menos esta profundidade restante
+    private static final int SPLIT_MIN_DEPTH = 4;
+    private final AtomicLong splitNodes = new AtomicLong();
+
+    // Workers das tarefas de divisão, reaproveitados por thread. É uma pilha
+    // porque a thread que espera um join pode executar outra tarefa no meio
+    private final ThreadLocal<ArrayDeque<SearchWorker>> splitWorkers = ThreadLocal.withInitial(ArrayDeque::new);
+
+    // Quiescência: margem do delta pruning
+    private static final int DELTA_MARGIN = 200;
+
+    // Poda seletiva; cada técnica pode ser desligada para comparações
+    private boolean nullMovePruning = true;
+    private boolean lateMoveReductions = true;
+    private boolean futilityPruning = true; // inclui reverse futility
+    private boolean lateMovePruning = true;
+    private boolean seePruning = true; // capturas perdedoras na quiescência e lances quietos perdedores
+
+    // Informa cada iteração completa no console (desligado por padrão)
+    private boolean verbose;
+
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int FUTILITY_MAX_DEPTH = 3;
+    private static final int[] FUTILITY_MARGINS = { 0, 150, 300, 500 };
+    private static final int REVERSE_FUTILITY_MARGIN = 120;
+    private static final int LATE_MOVE_MAX_DEPTH = 3;
+    private static final int[] LATE_MOVE_COUNTS = { 0, 6, 10, 16 };
+
+    // Poda por SEE: lances quietos que perdem mais que esta margem por
+    // profundidade na troca da casa de destino
+    private static final int SEE_QUIET_MAX_DEPTH = 3;
+    private static final int SEE_QUIET_MARGIN = 50;
+
+    // Redução por profundidade e número do lance: 0,75 + ln(d) * ln(n) / 2,25
+    private static final int[][] LMR_REDUCTIONS = new int[64][64];
+
+    static {
+        for (int depth = 1; depth < 64; depth++) {
+            for (int moveNumber = 1; moveNumber < 64; moveNumber++) {
+                LMR_REDUCTIONS[depth][moveNumber] = (int) (0.75 + Math.log(depth) * Math.log(moveNumber) / 2.25);
+            }
+        }
+    }
+
+    // Limite dos valores da busca e janela de aspiração da raiz
+    private static final int INFINITY = TranspositionTable.MATE_SCORE + 1;
+    private static final int ASPIRATION_WINDOW = 50;
+    private static final int ASPIRATION_MIN_DEPTH = 4;
+
+    // Linha esperada da última busca
+    private int[] principalVariation = new int[0];
+
+    // Controle de tempo: a busca confere o relógio a cada NODE_CHECK_INTERVAL
+    // nós e para ao atingir o limite rígido; o limite flexível só impede o
+    // início de uma nova iteração
+    private static final int NODE_CHECK_INTERVAL = 2048;
+    private static final long DEFAULT_TIME_BUDGET_MILLIS = 3000;
+    private volatile boolean stopSearch;
+
+    // Pedidos de lance numerados: stop() avança o número e cancela todos os
+    // pedidos feitos antes, inclusive os que ainda não começaram a buscar
+    private final AtomicInteger generation = new AtomicInteger();
+    private volatile long hardDeadline;
+    private long nodes;
+    private int completedDepth;
+
     public ChessAI(Game game) {
+        this(game, DEFAULT_HASH_MB);
+    }
+
+    public ChessAI(Game game, int hashSizeMB) {
         this.game = game;
+        this.transpositionTable = new TranspositionTable(hashSizeMB);
+        this.openingBook = PolyglotBook.openDefault();
+        setThreads(1);
+    }
+
+    public void setOpeningBook(PolyglotBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    public PolyglotBook getOpeningBook() {
+        return openingBook;
+    }
+
+    // Número de threads da busca; todas compartilham a tabela de transposição
+    public void setThreads(int threads) {
+        workers = new SearchWorker[Math.max(1, threads)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new SearchWorker(i);
+        }
+    }
+
+    public int getThreads() {
+        return workers.length;
     }
 
     public void makeMove() {
+        makeMove(DEFAULT_TIME_BUDGET_MILLIS * 30);
+    }
+
+    // Joga usando uma fração do tempo restante no relógio da IA
+    public void makeMove(long remainingMillis) {
+        Move move = chooseMove(remainingMillis);
+        if (move != null)
+            game.movePieceDirect(move.getFrom(), move.getTo(), move.getPromotionType());
+    }
+
+    // Escolhe o lance do jogo sem jogá-lo (null se não houver lances)
+    public Move chooseMove(long remainingMillis) {
+        return chooseMove(game.getBoard(), remainingMillis, generation.get());
+    }
+
+    // Escolhe o lance para a posição informada; com uma cópia do tabuleiro do
+    // jogo, pode rodar fora da thread da interface enquanto o jogo é exibido.
+    // requestGeneration vem de getGeneration() no momento do pedido: um stop()
+    // posterior cancela a escolha mesmo antes de a busca começar
+    public Move chooseMove(Board board, long remainingMillis, int requestGeneration) {
+        // Posição do livro de aberturas: joga sem buscar
+        if (openingBook != null) {
+            int bookMove = openingBook.probe(board, random);
+            if (bookMove != PackedMove.NONE) {
+                Move move = PackedMove.toMove(bookMove, board);
+                principalVariation = new int[] { bookMove };
+                completedDepth = 0;
+                System.out.println("IA escolheu (livro): " + move.getPiece().getSymbol() +
+                                 " de " + move.getFrom() + " para " + move.getTo());
+                return move;
+            }
+        }
+
         System.out.println("IA está pensando...");
-        
-        // IA melhorada com avaliação básica
-        makeSmartMove();
+
+        long budget = timeBudgetFor(remainingMillis);
+        Move bestMove = search(board, MAX_PLY, Math.max(1, budget / 2), budget, requestGeneration);
+        if (generation.get() != requestGeneration)
+            return null;
+        if (bestMove == null) {
+            // Nenhuma iteração completa (tempo muito curto): usa a avaliação básica
+            return chooseSmartMove(board);
+        }
+
+        System.out.println("IA escolheu: " + bestMove.getPiece().getSymbol() +
+                         " de " + bestMove.getFrom() + " para " + bestMove.getTo());
+        return bestMove;
+    }
+
+    // Orçamento por lance: cerca de 1/30 do tempo restante (o relógio não tem incremento)
+    static long timeBudgetFor(long remainingMillis) {
+        return Math.max(1, remainingMillis / 30);
+    }
+
+    // Interrompe a busca em andamento e cancela os pedidos já feitos; nas
+    // buscas diretas (findBestMove) o lance da última iteração completa é mantido
+    public void stop() {
+        generation.incrementAndGet();
+        stopSearch = true;
+    }
+
+    // Número do pedido atual, a passar para chooseMove
+    public int getGeneration() {
+        return generation.get();
+    }
+
+    public void setNullMovePruning(boolean enabled) {
+        nullMovePruning = enabled;
+    }
+
+    public void setLateMoveReductions(boolean enabled) {
+        lateMoveReductions = enabled;
+    }
+
+    public void setFutilityPruning(boolean enabled) {
+        futilityPruning = enabled;
+    }
+
+    public void setLateMovePruning(boolean enabled) {
+        lateMovePruning = enabled;
+    }
+
+    public void setSeePruning(boolean enabled) {
+        seePruning = enabled;
+    }
+
+    public void setVerbose(boolean enabled) {
+        verbose = enabled;
+    }
+
+    // Linha esperada (lances compactados) da última iteração completa
+    public int[] getPrincipalVariation() {
+        return principalVariation.clone();
+    }
+
+    // Linha esperada em notação de coordenadas, ex.: "e2e4 e7e5 g1f3"
+    public String getPrincipalVariationText() {
+        return toText(principalVariation);
+    }
+
+    private static String toText(int[] line) {
+        StringBuilder text = new StringBuilder();
+        for (int move : line) {
+            if (text.length() > 0)
+                text.append(' ');
+            text.append(PackedMove.toString(move));
+        }
+        return text.toString();
+    }
+
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    public long getNodes() {
+        return nodes;
     }
     
-    private void makeSmartMove() {
-        boolean isWhiteTurn = game.isWhiteTurn();
-        Board board = game.getBoard();
+    private Move chooseSmartMove(Board board) {
+        boolean isWhiteTurn = board.isWhiteTurn();
         List<Move> allValidMoves = getAllValidMoves(board, isWhiteTurn);
 
         if (allValidMoves.isEmpty()) {
             System.out.println("Nenhum movimento disponível para a IA!");
-            return;
+            return null;
         }
 
         Move bestMove = evaluateBestMove(allValidMoves, board, isWhiteTurn);
         
         System.out.println("IA escolheu: " + bestMove.getPiece().getSymbol() + 
                          " de " + bestMove.getFrom() + " para " + bestMove.getTo());
-        game.movePieceDirect(bestMove.getFrom(), bestMove.getTo());
+        return bestMove;
     }
     
     private List<Move> getAllValidMoves(Board board, boolean isWhiteTurn) {
         List<Move> allValidMoves = new ArrayList<>();
 
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Position from = new Position(r, c);
-                Piece piece = board.getPieceAt(from);
-
-                if (piece != null && piece.isWhite() == isWhiteTurn) {
-                    List<Position> possibleMoves = piece.getPossibleMoves();
-                    if (possibleMoves != null) {
-                        for (Position to : possibleMoves) {
-                            Move move = new Move(from, to, piece, board.getPieceAt(to));
-                            // Validação básica sem recursão complexa
-                            if (isBasicValidMove(board, move)) {
-                                allValidMoves.add(move);
-                            }
-                        }
-                    }
-                }
-            }
+        // Lances legais gerados de uma vez (xeques e cravadas calculados uma única vez)
+        MoveList legalMoves = validMoves;
+        generateLegalMoves(board, isWhiteTurn, legalMoves);
+        for (int i = 0; i < legalMoves.size(); i++) {
+            allValidMoves.add(PackedMove.toMove(legalMoves.get(i), board));
         }
         return allValidMoves;
     }
     
-    private boolean isBasicValidMove(Board board, Move move) {
-        Position to = move.getTo();
-        
-        // Verificação básica de limites do tabuleiro
-        if (to.getRow() < 0 || to.getRow() >= 8 || 
-            to.getColumn() < 0 || to.getColumn() >= 8) {
-            return false;
-        }
-        
-        // Verificação se o movimento é válido para a peça
-        Piece piece = move.getPiece();
-        if (piece == null || !piece.canMoveTo(to)) {
-            return false;
-        }
-        
-        // Verificação simples se não deixa o próprio rei em xeque
-        return !game.moveCausesCheck(piece, to);
-    }
-    
     private Move evaluateBestMove(List<Move> moves, Board board, boolean isWhiteTurn) {
         Move bestMove = null;
         int bestScore = Integer.MIN_VALUE;
@@ -104,9 +313,10 @@ public class ChessAI {
     private int evaluateMoveScore(Move move, Board board, boolean isWhiteTurn) {
         int score = 0;
         
-        // 1. Prioriza capturas valiosas
+        // 1. Prioriza capturas pelo saldo da troca na casa (SEE), não só pela peça capturada
         if (move.getCapturedPiece() != null) {
-            score += getPieceValue(move.getCapturedPiece()) * 10;
+            int packed = PackedMove.encode(move.getFrom().getSquare(), move.getTo().getSquare(), 0, PackedMove.FLAG_CAPTURE);
+            score += StaticExchange.evaluate(board, packed) * 10;
         }
         
         // 2. Bonifica controle do centro
@@ -169,7 +379,7 @@ public class ChessAI {
                 int newCol = pos.getColumn() + dc;
                 
                 if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
-                    Piece piece = board.getPieceAt(new Position(newRow, newCol));
+                    Piece piece = board.getPieceAt(Position.of(newRow, newCol));
                     if (piece != null && piece.isWhite() == enemyColor) {
                         return true;
                     }
@@ -179,181 +389,220 @@ public class ChessAI {
         return false;
     }
 
-    public Move findBestMove(int depth) {
-        Board boardClone = game.getBoard().clone();
-        List<Move> possibleMoves = getAllPossibleMoves(boardClone, game.isWhiteTurn());
-        Move bestMove = null;
-        int bestValue = Integer.MIN_VALUE;
+    // Realoca a tabela de transposição com o tamanho informado (descarta o conteúdo)
+    public void setHashSizeMB(int sizeMB) {
+        transpositionTable = new TranspositionTable(sizeMB);
+    }
 
-        if (possibleMoves.isEmpty()) {
-            return null; // Retorna null se não houver movimentos possíveis
-        }
+    public EvalCache getEvalCache() {
+        return evalCache;
+    }
 
-        // Se houver apenas um movimento possível, retorna ele imediatamente
-        if (possibleMoves.size() == 1) {
-            return possibleMoves.get(0);
-        }
+    public PawnHashTable getPawnHashTable() {
+        return pawnHashTable;
+    }
 
-        for (Move move : possibleMoves) {
-            Board testBoard = boardClone.clone();
-            makeTestMove(testBoard, move);
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
 
-            // Avalia o movimento usando o algoritmo minimax
-            int moveValue = -minimax(testBoard, depth - 1, Integer.MIN_VALUE, Integer.MAX_VALUE, false);
+    // Busca com profundidade fixa, sem limite de tempo
+    public Move findBestMove(int depth) {
+        return findBestMove(game.getBoard(), depth);
+    }
 
-            if (moveValue > bestValue) {
-                bestValue = moveValue;
-                bestMove = move;
-            }
-        }
+    // Busca com profundidade fixa em uma posição qualquer (análise e benchmarks)
+    public Move findBestMove(Board position, int depth) {
+        return search(position, depth, Long.MAX_VALUE, Long.MAX_VALUE, generation.get());
+    }
+
+    // Busca paralela com profundidade fixa, para análise em lote: a raiz e os
+    // nós profundos dividem os irmãos mais novos entre as threads de um
+    // ForkJoinPool depois de buscar o primeiro lance (Young Brothers Wait).
+    // Sem limite de tempo nem threads auxiliares independentes, o resultado
+    // varia bem menos entre execuções que no Lazy SMP
+    public synchronized Move findBestMoveParallel(Board position, int depth, int parallelism) {
+        long start = System.currentTimeMillis();
+        hardDeadline = Long.MAX_VALUE;
+        stopSearch = false;
+        nodes = 0;
+        completedDepth = 0;
+        principalVariation = new int[0];
+        splitNodes.set(0);
+        transpositionTable.newSearch();
+        evalCache.resetStatistics();
+        pawnHashTable.resetStatistics();
+
+        MoveList possibleMoves = new MoveList();
+        generateLegalMoves(position, position.isWhiteTurn(), possibleMoves);
+        if (possibleMoves.isEmpty())
+            return null;
+        if (possibleMoves.size() == 1)
+            return PackedMove.toMove(possibleMoves.get(0), position);
 
-        // Se não encontrou um bom movimento, escolhe um aleatório
-        if (bestMove == null && !possibleMoves.isEmpty()) {
-            bestMove = possibleMoves.get(random.nextInt(possibleMoves.size()));
+        SearchWorker main = new SearchWorker(0);
+        main.splitting = true;
+        main.prepare(position, possibleMoves, depth, Long.MAX_VALUE, start);
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            pool.invoke(ForkJoinTask.adapt(main));
+        } finally {
+            pool.shutdown();
         }
 
-        return bestMove;
+        nodes = main.nodes + splitNodes.get();
+        completedDepth = main.completedDepth;
+        principalVariation = main.principalVariation;
+        if (main.bestMove == PackedMove.NONE)
+            return null;
+        return PackedMove.toMove(main.bestMove, position);
     }
 
-    private int minimax(Board board, int depth, int alpha, int beta, boolean isMaximizing) {
-        // Condição de parada: profundidade zero ou jogo terminado
-        if (depth == 0) {
-            return evaluateBoard(board, isMaximizing ? game.isWhiteTurn() : !game.isWhiteTurn());
-        }
+    // Aprofundamento iterativo dentro do orçamento de tempo. Depois da metade
+    // do orçamento não começa outra iteração, pois ela levaria mais que o resto
+    public Move findBestMove(long timeBudgetMillis) {
+        return search(game.getBoard(), MAX_PLY, Math.max(1, timeBudgetMillis / 2), timeBudgetMillis, generation.get());
+    }
+
+    // Uma busca por vez: as threads de busca e as tabelas são compartilhadas, e
+    // um pedido novo espera o cancelado terminar (o que leva poucos nós)
+    private synchronized Move search(Board position, int maxDepth, long softLimitMillis, long hardLimitMillis,
+            int requestGeneration) {
+        long start = System.currentTimeMillis();
+        hardDeadline = hardLimitMillis == Long.MAX_VALUE ? Long.MAX_VALUE : start + hardLimitMillis;
+        stopSearch = false;
+        // Conferido depois de limpar a parada: um stop() concorrente nunca se perde
+        if (generation.get() != requestGeneration)
+            stopSearch = true;
+        nodes = 0;
+        completedDepth = 0;
+        principalVariation = new int[0];
+        transpositionTable.newSearch();
+        evalCache.resetStatistics();
+        pawnHashTable.resetStatistics();
 
-        // Obtém todos os movimentos possíveis para o jogador atual
-        List<Move> possibleMoves = getAllPossibleMoves(board, isMaximizing ? game.isWhiteTurn() : !game.isWhiteTurn());
+        MoveList possibleMoves = new MoveList();
+        generateLegalMoves(position, position.isWhiteTurn(), possibleMoves);
 
-        // Se não há movimentos possíveis, é xeque-mate ou empate
         if (possibleMoves.isEmpty()) {
-            // Se for xeque-mate, retorna um valor extremo
-            if (isKingInCheck(board, isMaximizing ? game.isWhiteTurn() : !game.isWhiteTurn())) {
-                return isMaximizing ? -100000 : 100000; // Valor muito negativo para xeque-mate quando maximizando
-            } else {
-                return 0; // Empate (stalemate)
-            }
+            return null; // Retorna null se não houver movimentos possíveis
         }
 
-        if (isMaximizing) {
-            int maxEval = Integer.MIN_VALUE;
-            for (Move move : possibleMoves) {
-                Board testBoard = board.clone();
-                makeTestMove(testBoard, move);
+        // Se houver apenas um movimento possível, retorna ele imediatamente
+        if (possibleMoves.size() == 1) {
+            return PackedMove.toMove(possibleMoves.get(0), position);
+        }
 
-                int eval = minimax(testBoard, depth - 1, alpha, beta, false);
-                maxEval = Math.max(maxEval, eval);
-                alpha = Math.max(alpha, eval);
-                if (beta <= alpha) {
-                    break; // Poda alfa-beta
-                }
-            }
-            return maxEval;
-        } else {
-            int minEval = Integer.MAX_VALUE;
-            for (Move move : possibleMoves) {
-                Board testBoard = board.clone();
-                makeTestMove(testBoard, move);
-
-                int eval = minimax(testBoard, depth - 1, alpha, beta, true);
-                minEval = Math.min(minEval, eval);
-                beta = Math.min(beta, eval);
-                if (beta <= alpha) {
-                    break; // Poda alfa-beta
-                }
-            }
-            return minEval;
+        // Lazy SMP: as threads auxiliares buscam a mesma raiz, cada uma em sua
+        // cópia do tabuleiro, até a principal terminar; elas se ajudam apenas
+        // pelo que deixam na tabela de transposição compartilhada
+        Thread[] helpers = new Thread[workers.length - 1];
+        for (int i = 1; i < workers.length; i++) {
+            workers[i].prepare(position, possibleMoves, MAX_PLY, Long.MAX_VALUE, start);
+            helpers[i - 1] = new Thread(workers[i], "IA-" + i);
+            helpers[i - 1].setDaemon(true);
+            helpers[i - 1].start();
         }
-    }
+        workers[0].prepare(position, possibleMoves, maxDepth, softLimitMillis, start);
+        workers[0].run();
 
-    private void makeTestMove(Board board, Move move) {
-        Piece pieceToMove = board.getPieceAt(move.getFrom());
-        if (pieceToMove == null) {
-            System.out.println("ERRO: Tentando mover uma peça nula de " + move.getFrom());
-            return;
+        stopSearch = true;
+        for (Thread helper : helpers) {
+            try {
+                helper.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
         }
 
-        // Verifica se há uma peça para capturar
-        Piece capturedPiece = board.getPieceAt(move.getTo());
-        if (capturedPiece != null) {
-            board.removePiece(move.getTo()); // Remove a peça capturada
+        // Fica com a thread que completou a maior profundidade (empate: maior valor)
+        SearchWorker best = workers[0];
+        for (SearchWorker worker : workers) {
+            nodes += worker.nodes;
+            if (worker.completedDepth > best.completedDepth
+                    || (worker.completedDepth == best.completedDepth && worker.bestValue > best.bestValue))
+                best = worker;
         }
+        completedDepth = best.completedDepth;
+        principalVariation = best.principalVariation;
 
-        board.removePiece(move.getFrom());
-        board.placePiece(pieceToMove, move.getTo());
+        if (best.bestMove == PackedMove.NONE)
+            return null;
 
-        // Verifica se o movimento foi bem-sucedido
-        if (board.getPieceAt(move.getTo()) == null) {
-            System.out.println("ERRO: Falha ao colocar peça em " + move.getTo());
-        }
+        // Objetos Move só são criados na fronteira com o jogo
+        return PackedMove.toMove(best.bestMove, position);
     }
 
-    private boolean isValidMove(Board board, Piece piece, Position destination) {
-        // Cria uma cópia do tabuleiro para testar o movimento
-        Board tempBoard = board.clone();
-        Position originalPos = piece.getPosition();
+    private static boolean hasNonPawnMaterial(Board board, boolean white) {
+        return board.countPieces(Bitboards.KNIGHT, white) + board.countPieces(Bitboards.BISHOP, white)
+                + board.countPieces(Bitboards.ROOK, white) + board.countPieces(Bitboards.QUEEN, white) > 0;
+    }
 
-        // Obtém a peça no tabuleiro temporário
-        Piece tempPiece = tempBoard.getPieceAt(originalPos);
-        Piece capturedPiece = tempBoard.getPieceAt(destination);
+    // Material ganho pela captura/promoção (no en passant a vítima é um peão)
+    private static int captureGain(Board board, int move) {
+        int victimCode = board.getPieceCodeAt(PackedMove.to(move));
+        int gain = victimCode == Bitboards.NO_PIECE
+                ? (PackedMove.isEnPassant(move) ? PieceSquareTables.pieceValue(Bitboards.PAWN) : 0)
+                : PieceSquareTables.pieceValue(Bitboards.typeOfCode(victimCode));
+        if (PackedMove.isPromotion(move))
+            gain += PieceSquareTables.pieceValue(PackedMove.promotionType(move)) - PieceSquareTables.pieceValue(Bitboards.PAWN);
+        return gain;
+    }
 
-        // Executa o movimento no tabuleiro temporário
-        tempBoard.removePiece(originalPos);
-        tempBoard.placePiece(tempPiece, destination);
+    // Gera os lances legais da cor. Para o lado que tem a vez usa o gerador
+    // legal; para o outro lado, filtra os pseudo-legais executando cada lance
+    private void generateLegalMoves(Board board, boolean forWhite, MoveList moves) {
+        if (forWhite == board.isWhiteTurn()) {
+            MoveGenerator.generateLegal(board, moves);
+            return;
+        }
 
-        // Verifica se o rei da mesma cor está em xeque após o movimento
-        boolean kingInCheck = isKingInCheck(tempBoard, piece.isWhite());
+        MoveGenerator.generate(board, forWhite, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (!isLegalMove(board, moves.get(i), forWhite)) {
+                moves.removeAt(i);
+                i--;
+            }
+        }
+    }
 
+    private boolean isLegalMove(Board board, int move, boolean forWhite) {
+        // Executa o lance no próprio tabuleiro e desfaz em seguida
+        board.makeMove(move);
+        boolean kingInCheck = isKingInCheck(board, forWhite);
+        board.unmakeMove(move);
         return !kingInCheck;
     }
 
     private boolean isKingInCheck(Board board, boolean isWhiteKing) {
-        // Encontra a posição do rei
-        Position kingPos = null;
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Position pos = new Position(r, c);
-                Piece p = board.getPieceAt(pos);
-                if (p instanceof King && p.isWhite() == isWhiteKing) {
-                    kingPos = pos;
-                    break;
-                }
-            }
-            if (kingPos != null)
-                break;
-        }
-
-        // Se não encontrou o rei, algo está errado
-        if (kingPos == null)
-            return false;
-
-        // Verifica se o rei está sob ataque
-        return board.isUnderAttack(kingPos, !isWhiteKing);
+        // Casa do rei mantida pelo tabuleiro; false se não houver rei
+        return board.isInCheck(isWhiteKing);
     }
 
-    private int evaluateBoard(Board board, boolean isWhiteTurn) {
+    private int evaluateBoard(Board board, boolean isWhiteTurn, MoveList evaluationMoves) {
         int value = 0;
 
         // 1. Avaliação material e posicional das peças
         value += evaluateMaterialAndPosition(board, isWhiteTurn);
         
-        // 2. Avaliação de mobilidade (número de movimentos possíveis)
+        // 2. Estrutura de peões (tabela de hash de peões) e escudo do rei
+        value += evaluatePawnStructure(board, isWhiteTurn);
+
+        // 3. Avaliação de mobilidade (número de movimentos possíveis)
         value += evaluateMobility(board, isWhiteTurn);
         
-        // 3. Avaliação de segurança do rei
+        // 4. Avaliação de segurança do rei
         value += evaluateKingSafety(board, isWhiteTurn);
         
-        // 4. Avaliação de controle do centro
-        value += evaluateCenterControl(board, isWhiteTurn);
-        
-        // 5. Avaliação de ameaças e capturas
+        // 5. Avaliação de ameaças e capturas (o controle do centro está nas tabelas peça-casa)
         value += evaluateThreats(board, isWhiteTurn);
         
         // 6. Bônus por xeque e xeque-mate
         if (isKingInCheck(board, !isWhiteTurn)) {
             value += 50; // Bônus por dar xeque
             // Verifica se é xeque-mate
-            List<Move> opponentMoves = getAllPossibleMoves(board, !isWhiteTurn);
-            if (opponentMoves.isEmpty()) {
+            generateLegalMoves(board, !isWhiteTurn, evaluationMoves);
+            if (evaluationMoves.isEmpty()) {
                 value += 10000; // Bônus massivo por xeque-mate
             }
         }
@@ -367,91 +616,28 @@ public class ChessAI {
     }
     
     private int evaluateMaterialAndPosition(Board board, boolean isWhiteTurn) {
-        int value = 0;
-        
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Position pos = new Position(row, col);
-                Piece piece = board.getPieceAt(pos);
-                if (piece != null) {
-                    int pieceValue = getPieceValue(piece);
-                    
-                    // Bônus posicional específico por tipo de peça
-                    pieceValue += getPositionalBonus(piece, row, col, board);
-                    
-                    // Adiciona ou subtrai baseado na cor da peça
-                    value += piece.isWhite() == isWhiteTurn ? pieceValue : -pieceValue;
-                }
-            }
-        }
-        
-        return value;
+        // Material e tabelas peça-casa já acumulados pelo tabuleiro, interpolados pela fase
+        int value = PieceSquareTables.taper(board.getMidgameScore(), board.getEndgameScore(), board.getGamePhase());
+        return isWhiteTurn ? value : -value;
     }
     
-    private int getPositionalBonus(Piece piece, int row, int col, Board board) {
-        int bonus = 0;
-        
-        // Bônus para peças no centro (mais forte no centro real)
-        if (row >= 3 && row <= 4 && col >= 3 && col <= 4) {
-            bonus += 20; // Centro forte
-        } else if (row >= 2 && row <= 5 && col >= 2 && col <= 5) {
-            bonus += 10; // Centro expandido
-        }
-        
-        if (piece instanceof Pawn) {
-            // Peões avançados são valiosos
-            if (piece.isWhite()) {
-                bonus += (7 - row) * 5; // Peões brancos avançando
-            } else {
-                bonus += row * 5; // Peões pretos avançando
-            }
-        } else if (piece instanceof Knight) {
-            // Cavalos são melhores no centro
-            bonus += 15;
-            // Penalidade para cavalos na borda
-            if (row == 0 || row == 7 || col == 0 || col == 7) {
-                bonus -= 20;
-            }
-        } else if (piece instanceof Bishop) {
-            // Bispos desenvolvidos
-            if ((piece.isWhite() && row < 6) || (!piece.isWhite() && row > 1)) {
-                bonus += 15;
-            }
-        } else if (piece instanceof Rook) {
-            // Torres em colunas abertas ou semi-abertas
-            boolean hasOwnPawn = false;
-            for (int r = 0; r < 8; r++) {
-                Piece p = board.getPieceAt(new Position(r, col));
-                if (p instanceof Pawn && p.isWhite() == piece.isWhite()) {
-                    hasOwnPawn = true;
-                    break;
-                }
-            }
-            if (!hasOwnPawn) {
-                bonus += 25; // Torre em coluna aberta/semi-aberta
-            }
-        }
-        
-        return bonus;
+    private int evaluatePawnStructure(Board board, boolean isWhiteTurn) {
+        long pawnData = PawnStructure.probe(pawnHashTable, board);
+        int phase = board.getGamePhase();
+        int value = PieceSquareTables.taper(PawnStructure.midgame(pawnData), PawnStructure.endgame(pawnData), phase);
+
+        // Torres em colunas abertas e escudo do rei (só no meio-jogo, pesado pela fase)
+        value += PawnStructure.rookFiles(board, pawnData, true) - PawnStructure.rookFiles(board, pawnData, false);
+        int shield = PawnStructure.kingShield(board, true) - PawnStructure.kingShield(board, false);
+        value += PieceSquareTables.taper(shield, 0, phase);
+
+        return isWhiteTurn ? value : -value;
     }
-    
+
     private int evaluateMobility(Board board, boolean isWhiteTurn) {
         // Simplificado para evitar recursão - apenas conta peças ativas
-        int myPieces = 0;
-        int opponentPieces = 0;
-        
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece piece = board.getPieceAt(new Position(r, c));
-                if (piece != null) {
-                    if (piece.isWhite() == isWhiteTurn) {
-                        myPieces++;
-                    } else {
-                        opponentPieces++;
-                    }
-                }
-            }
-        }
+        int myPieces = board.countPieces(isWhiteTurn);
+        int opponentPieces = board.countPieces(!isWhiteTurn);
         
         return (myPieces - opponentPieces) * 5;
     }
@@ -467,7 +653,7 @@ public class ChessAI {
         int nearbyEnemies = 0;
         for (int row = Math.max(0, kingPos.getRow() - 2); row <= Math.min(7, kingPos.getRow() + 2); row++) {
             for (int col = Math.max(0, kingPos.getColumn() - 2); col <= Math.min(7, kingPos.getColumn() + 2); col++) {
-                Piece piece = board.getPieceAt(new Position(row, col));
+                Piece piece = board.getPieceAt(Position.of(row, col));
                 if (piece != null && piece.isWhite() != isWhiteTurn) {
                     nearbyEnemies++;
                 }
@@ -479,55 +665,17 @@ public class ChessAI {
         return safety;
     }
     
-    private int evaluateCenterControl(Board board, boolean isWhiteTurn) {
-        int control = 0;
-        Position[] centerSquares = {
-            new Position(3, 3), new Position(3, 4),
-            new Position(4, 3), new Position(4, 4)
-        };
-        
-        // Avaliação simplificada: conta peças no centro e próximas ao centro
-        for (Position center : centerSquares) {
-            Piece centerPiece = board.getPieceAt(center);
-            if (centerPiece != null) {
-                if (centerPiece.isWhite() == isWhiteTurn) {
-                    control += 20; // Bônus por ocupar o centro
-                } else {
-                    control -= 20; // Penalidade se oponente ocupa o centro
-                }
-            }
-        }
-        
-        // Conta peças próximas ao centro
-        for (int row = 2; row <= 5; row++) {
-            for (int col = 2; col <= 5; col++) {
-                Piece piece = board.getPieceAt(new Position(row, col));
-                if (piece != null) {
-                    if (piece.isWhite() == isWhiteTurn) {
-                        control += 5; // Pequeno bônus por estar próximo ao centro
-                    } else {
-                        control -= 5;
-                    }
-                }
-            }
-        }
-        
-        return control;
-    }
-    
     private int evaluateThreats(Board board, boolean isWhiteTurn) {
         // Simplificado para evitar recursão - avalia peças em posições vulneráveis
         int threats = 0;
         
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Position pos = new Position(r, c);
-                Piece piece = board.getPieceAt(pos);
-                if (piece != null && piece.isWhite() != isWhiteTurn) {
-                    // Peça inimiga - verifica se está em posição vulnerável
-                    if (isPositionVulnerable(board, pos)) {
-                        threats += getPieceValue(piece) / 4;
-                    }
+        // Percorre apenas as peças inimigas
+        for (int type = Bitboards.PAWN; type <= Bitboards.KING; type++) {
+            for (int i = 0; i < board.countPieces(type, !isWhiteTurn); i++) {
+                Position pos = Position.of(board.getPieceSquare(type, !isWhiteTurn, i));
+                // Peça inimiga - verifica se está em posição vulnerável
+                if (isPositionVulnerable(board, pos)) {
+                    threats += getPieceValue(board.getPieceAt(pos)) / 4;
                 }
             }
         }
@@ -548,7 +696,7 @@ public class ChessAI {
                 int newCol = pos.getColumn() + dc;
                 
                 if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
-                    Piece neighbor = board.getPieceAt(new Position(newRow, newCol));
+                    Piece neighbor = board.getPieceAt(Position.of(newRow, newCol));
                     if (neighbor != null && neighbor.isWhite() != piece.isWhite()) {
                         return true;
                     }
@@ -559,53 +707,651 @@ public class ChessAI {
     }
     
     private Position findKing(Board board, boolean isWhite) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Position pos = new Position(row, col);
-                Piece piece = board.getPieceAt(pos);
-                if (piece instanceof King && piece.isWhite() == isWhite) {
-                    return pos;
+        return board.getKingPosition(isWhite);
+    }
+
+    private int getPieceValue(Piece piece) {
+        return piece == null ? 0 : PieceSquareTables.pieceValue(Bitboards.typeOf(piece));
+    }
+
+    // Estado de uma thread de busca: buffers por ply, killers e histórico
+    // próprios, variante principal e o resultado da última iteração completa
+    private final class SearchWorker implements Runnable {
+        private final int id;
+        private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+        private final MovePicker[] movePickers = new MovePicker[MAX_PLY + 1];
+        private final MoveList rootMoves = new MoveList();
+        private final MoveList evaluationMoves = new MoveList();
+        private final MoveOrdering moveOrdering = new MoveOrdering(MAX_PLY);
+        private final int[] exchangeGains = new int[StaticExchange.MAX_EXCHANGES];
+
+        // Marca os plies alcançados por um lance nulo (evita dois seguidos)
+        private final boolean[] nullMoveAt = new boolean[MAX_PLY + 2];
+
+        // Variante principal (tabela triangular)
+        private final int[][] pvTable = new int[MAX_PLY + 2][MAX_PLY + 2];
+        private final int[] pvLength = new int[MAX_PLY + 2];
+
+        // Modo fork/join: divide os irmãos mais novos entre as threads do
+        // pool; splitPoint é o ponto de divisão de onde veio esta busca
+        private boolean splitting;
+        private SplitPoint splitPoint;
+        private boolean stopped;
+
+        private Board board;
+        private int maxDepth;
+        private long softLimitMillis;
+        private long start;
+
+        private long nodes;
+        private int completedDepth;
+        private int bestMove;
+        private int bestValue;
+        private int[] principalVariation = new int[0];
+
+        SearchWorker(int id) {
+            this.id = id;
+        }
+
+        // Buffers criados sob demanda: as buscas dos pontos de divisão só usam os plies finais
+        private MoveList moveList(int ply) {
+            if (moveLists[ply] == null)
+                moveLists[ply] = new MoveList();
+            return moveLists[ply];
+        }
+
+        private MovePicker movePicker(int ply) {
+            if (movePickers[ply] == null)
+                movePickers[ply] = new MovePicker();
+            return movePickers[ply];
+        }
+
+        // Prepara o worker reaproveitado para buscar um irmão de um ponto de divisão
+        void prepareSplit(SplitPoint point, Board position, MoveOrdering ordering) {
+            splitting = true;
+            splitPoint = point;
+            board = position;
+            nodes = 0;
+            stopped = false;
+            moveOrdering.copyFrom(ordering);
+        }
+
+        // Confere o relógio, a parada geral e cortes nos pontos de divisão acima deste
+        private void checkStop() {
+            if (System.currentTimeMillis() >= hardDeadline)
+                stopSearch = true;
+            stopped = stopSearch || (splitPoint != null && splitPoint.isAborted());
+        }
+
+        void prepare(Board position, MoveList moves, int maxDepth, long softLimitMillis, long start) {
+            this.board = position.copyPosition();
+            this.maxDepth = Math.min(maxDepth, MAX_PLY);
+            this.softLimitMillis = softLimitMillis;
+            this.start = start;
+            rootMoves.clear();
+            for (int i = 0; i < moves.size(); i++) {
+                rootMoves.add(moves.get(i));
+            }
+        }
+
+        @Override
+        public void run() {
+            nodes = 0;
+            completedDepth = 0;
+            bestMove = PackedMove.NONE;
+            bestValue = -INFINITY;
+            principalVariation = new int[0];
+            stopped = false;
+            moveOrdering.newSearch();
+
+            // Ordem inicial da raiz: lance da tabela e capturas primeiro
+            long rootEntry = transpositionTable.probe(board.getHash());
+            moveOrdering.scoreMoves(board, rootMoves,
+                    rootEntry != 0 ? TranspositionTable.move(rootEntry) : PackedMove.NONE, 0);
+            for (int i = 0; i < rootMoves.size(); i++) {
+                rootMoves.pickBest(i);
+            }
+
+            // As threads auxiliares de número ímpar começam um ply à frente,
+            // para que nem todas busquem a mesma profundidade ao mesmo tempo
+            int previousValue = 0;
+            for (int depth = 1 + (id & 1); depth <= maxDepth; depth++) {
+                // Janela de aspiração em torno do valor da iteração anterior,
+                // alargada a cada falha até o valor cair dentro dela
+                int delta = ASPIRATION_WINDOW;
+                int alpha = -INFINITY;
+                int beta = INFINITY;
+                if (depth >= ASPIRATION_MIN_DEPTH && Math.abs(previousValue) < TranspositionTable.MATE_BOUND) {
+                    alpha = previousValue - delta;
+                    beta = previousValue + delta;
+                }
+
+                int value;
+                while (true) {
+                    value = searchRoot(board, rootMoves, depth, alpha, beta);
+                    if (stopped)
+                        break;
+                    if (value <= alpha && alpha > -INFINITY) {
+                        alpha = Math.max(value - delta, -INFINITY);
+                    } else if (value >= beta && beta < INFINITY) {
+                        beta = Math.min(value + delta, INFINITY);
+                    } else {
+                        break;
+                    }
+                    delta *= 2;
+                }
+
+                // Iteração interrompida: fica com o resultado da anterior
+                if (stopped)
+                    break;
+
+                bestMove = pvTable[0][0];
+                bestValue = value;
+                previousValue = value;
+                completedDepth = depth;
+                principalVariation = Arrays.copyOf(pvTable[0], pvLength[0]);
+                transpositionTable.store(board.getHash(), depth, TranspositionTable.EXACT,
+                        TranspositionTable.scoreToTable(value, 0), bestMove);
+
+                // O melhor lance vai para o início da lista na próxima iteração
+                rootMoves.moveToFront(bestMove);
+
+                // Só a thread principal informa o progresso e controla o tempo
+                if (id == 0) {
+                    long elapsed = System.currentTimeMillis() - start;
+                    if (verbose)
+                        System.out.println("IA: profundidade " + depth + ", valor " + value + ", " + nodes + " nós, "
+                                + elapsed + " ms, linha " + toText(principalVariation));
+                    if (elapsed >= softLimitMillis || Math.abs(value) > TranspositionTable.MATE_BOUND)
+                        break;
                 }
             }
         }
-        return null;
-    }
 
-    private int getPieceValue(Piece piece) {
-        if (piece instanceof Pawn)
-            return 100;
-        if (piece instanceof Knight)
-            return 300;
-        if (piece instanceof Bishop)
-            return 300;
-        if (piece instanceof Rook)
-            return 500;
-        if (piece instanceof Queen)
-            return 900;
-        if (piece instanceof King)
-            return 10000;
-        return 0;
-    }
-
-    private List<Move> getAllPossibleMoves(Board board, boolean forWhite) {
-        List<Move> moves = new ArrayList<>();
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Position pos = new Position(r, c);
-                Piece piece = board.getPieceAt(pos);
-                if (piece != null && piece.isWhite() == forWhite) {
-                    List<Position> possibleMoves = piece.getPossibleMoves();
-                    if (possibleMoves != null) {
-                        for (Position dest : possibleMoves) {
-                            // Verificar se o movimento não causa xeque no próprio rei
-                            if (isValidMove(board, piece, dest)) {
-                                moves.add(new Move(pos, dest, piece, board.getPieceAt(dest)));
-                            }
-                        }
+        // Avaliação estática pelo cache; a chave usa a cor do ponto de vista como vez
+        private int evaluate(Board board, boolean white) {
+            long key = board.getHash() ^ (white == board.isWhiteTurn() ? 0L : Zobrist.blackToMove());
+            long entry = evalCache.probe(key);
+            if (entry != 0)
+                return EvalCache.score(entry);
+            int value = evaluateBoard(board, white, evaluationMoves);
+            evalCache.store(key, value);
+            return value;
+        }
+
+        // Raiz da PVS: o primeiro lance com a janela inteira, os demais com
+        // janela nula, repetindo com a janela inteira quem superar alfa
+        private int searchRoot(Board board, MoveList moves, int depth, int alpha, int beta) {
+            pvLength[0] = 0;
+            int bestValue = -INFINITY;
+            for (int i = 0; i < moves.size(); i++) {
+                if (splitting && i > 0 && depth >= SPLIT_MIN_DEPTH) {
+                    // Na raiz a busca sequencial não reduz nenhum lance
+                    int[] youngerBrothers = new int[moves.size() - i];
+                    for (int k = i; k < moves.size(); k++) {
+                        youngerBrothers[k - i] = moves.get(k);
                     }
+                    SplitPoint point = split(board, youngerBrothers, new int[youngerBrothers.length], depth, 0, alpha, beta);
+                    if (stopped)
+                        return 0;
+                    bestValue = Math.max(bestValue, point.bestEval);
+                    break;
+                }
+
+                int move = moves.get(i);
+                board.makeMove(move);
+                int value;
+                if (i == 0) {
+                    value = -negamax(board, depth - 1, -beta, -alpha, 1);
+                } else {
+                    value = -negamax(board, depth - 1, -alpha - 1, -alpha, 1);
+                    if (value > alpha && value < beta && !stopped)
+                        value = -negamax(board, depth - 1, -beta, -alpha, 1);
+                }
+                board.unmakeMove(move);
+
+                if (stopped)
+                    return 0;
+                if (value > bestValue)
+                    bestValue = value;
+                if (value > alpha) {
+                    alpha = value;
+                    updatePrincipalVariation(0, move);
+                    if (alpha >= beta)
+                        break;
+                }
+            }
+            return bestValue;
+        }
+
+        // Negamax com busca de variante principal: valores do ponto de vista de
+        // quem tem a vez. Nós com janela nula (fora da variante principal) podem
+        // ser cortados pela tabela e pelas podas seletivas
+        private int negamax(Board board, int depth, int alpha, int beta, int ply) {
+            pvLength[ply] = ply;
+
+            // Confere o relógio periodicamente; ao parar, o valor retornado é descartado
+            if ((++nodes & (NODE_CHECK_INTERVAL - 1)) == 0)
+                checkStop();
+            if (stopped)
+                return 0;
+
+            // Na profundidade zero segue só com capturas até a posição ficar quieta
+            if (depth <= 0 || ply >= MAX_PLY)
+                return quiescence(board, alpha, beta, ply, 0);
+
+            boolean sideToMove = board.isWhiteTurn();
+            boolean pvNode = beta - alpha > 1;
+
+            // Consulta a tabela de transposição (fora da variante principal)
+            long hash = board.getHash();
+            long entry = transpositionTable.probe(hash);
+            int hashMove = entry != 0 ? TranspositionTable.move(entry) : PackedMove.NONE;
+            if (!pvNode && entry != 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha))
+                    return score;
+            }
+
+            boolean inCheck = isKingInCheck(board, sideToMove);
+            int staticEval = inCheck || pvNode ? 0 : evaluate(board, sideToMove);
+
+            // Reverse futility: com a avaliação estática bem acima de beta perto
+            // das folhas, assume que o lado mantém a vantagem
+            if (futilityPruning && !pvNode && !inCheck && depth <= FUTILITY_MAX_DEPTH
+                    && beta < TranspositionTable.MATE_BOUND && staticEval - REVERSE_FUTILITY_MARGIN * depth >= beta)
+                return staticEval;
+
+            // Lance nulo: se mesmo passando a vez o lado continua acima de beta,
+            // corta. Não é usado em seguida a outro lance nulo nem quando o lado
+            // só tem rei e peões (risco de zugzwang)
+            if (nullMovePruning && !pvNode && !inCheck && depth >= NULL_MOVE_MIN_DEPTH && !nullMoveAt[ply]
+                    && staticEval >= beta && beta < TranspositionTable.MATE_BOUND
+                    && hasNonPawnMaterial(board, sideToMove)) {
+                int reduction = Math.min(depth - 1, 3 + depth / 6);
+                board.makeNullMove();
+                nullMoveAt[ply + 1] = true;
+                int score = -negamax(board, depth - 1 - reduction, -beta, -beta + 1, ply + 1);
+                nullMoveAt[ply + 1] = false;
+                board.unmakeNullMove();
+                if (stopped)
+                    return 0;
+                if (score >= beta) {
+                    // Mates encontrados após o lance nulo não são confiáveis
+                    return score >= TranspositionTable.MATE_BOUND ? beta : score;
+                }
+            }
+
+            // Lances em etapas (tabela, capturas boas, killers, quietos, capturas
+            // perdedoras); a legalidade é conferida só antes de buscar cada um
+            MovePicker picker = movePicker(ply);
+            picker.init(board, moveOrdering, hashMove, ply);
+
+            int originalAlpha = alpha;
+            int bestMove = PackedMove.NONE;
+            int bestEval = -INFINITY;
+            int legalMoves = 0;
+            int movesSearched = 0;
+            int quietsSearched = 0;
+            boolean canPruneQuiets = !pvNode && !inCheck && alpha > -TranspositionTable.MATE_BOUND;
+
+            int move;
+            while ((move = picker.next()) != PackedMove.NONE) {
+                if (!MoveGenerator.isLegal(board, move))
+                    continue;
+                legalMoves++;
+
+                // Young Brothers Wait: depois do primeiro lance, os restantes vão para o
+                // pool com as mesmas podas e reduções que receberiam no laço abaixo
+                // (decididas na ordem do seletor, com o alfa do momento da divisão)
+                if (splitting && movesSearched > 0 && depth >= SPLIT_MIN_DEPTH) {
+                    MoveList remaining = moveList(ply);
+                    remaining.clear();
+                    for (int next = move; next != PackedMove.NONE; next = picker.next()) {
+                        if (next != move && !MoveGenerator.isLegal(board, next))
+                            continue;
+                        boolean quiet = !PackedMove.isTactical(next);
+                        boolean losingQuiet = quiet && canPruneQuiets && isLosingQuiet(board, next, depth, ply);
+                        board.makeMove(next);
+                        boolean givesCheck = isKingInCheck(board, !sideToMove);
+                        board.unmakeMove(next);
+                        if (quiet && !givesCheck && canPruneQuiets
+                                && isPrunableQuiet(depth, quietsSearched, staticEval, alpha, losingQuiet))
+                            continue;
+
+                        remaining.add(next);
+                        remaining.setScore(remaining.size() - 1, quiet && !givesCheck && !inCheck
+                                ? lateMoveReduction(next, depth, movesSearched, pvNode, ply) : 0);
+                        movesSearched++;
+                        if (quiet)
+                            quietsSearched++;
+                    }
+                    int[] youngerBrothers = new int[remaining.size()];
+                    int[] reductions = new int[remaining.size()];
+                    for (int k = 0; k < remaining.size(); k++) {
+                        youngerBrothers[k] = remaining.get(k);
+                        reductions[k] = remaining.getScore(k);
+                    }
+                    SplitPoint point = split(board, youngerBrothers, reductions, depth, ply, alpha, beta);
+                    if (stopped)
+                        return 0;
+                    if (point.bestEval > bestEval) {
+                        bestEval = point.bestEval;
+                        bestMove = point.bestMove;
+                    }
+                    if (point.bestAlpha > alpha) {
+                        alpha = point.bestAlpha;
+                        if (alpha >= beta && !PackedMove.isTactical(bestMove))
+                            moveOrdering.updateQuiet(board, bestMove, ply, depth);
+                    }
+                    break;
+                }
+
+                boolean quiet = !PackedMove.isTactical(move);
+                boolean losingQuiet = quiet && canPruneQuiets && movesSearched > 0
+                        && isLosingQuiet(board, move, depth, ply);
+                board.makeMove(move);
+                boolean givesCheck = isKingInCheck(board, !sideToMove);
+
+                // Poda de lances quietos perto das folhas, sempre depois do primeiro lance
+                if (quiet && !givesCheck && canPruneQuiets && movesSearched > 0
+                        && isPrunableQuiet(depth, quietsSearched, staticEval, alpha, losingQuiet)) {
+                    board.unmakeMove(move);
+                    continue;
+                }
+
+                int eval;
+                if (movesSearched == 0) {
+                    eval = -negamax(board, depth - 1, -beta, -alpha, ply + 1);
+                } else {
+                    int reduction = quiet && !givesCheck && !inCheck
+                            ? lateMoveReduction(move, depth, movesSearched, pvNode, ply) : 0;
+
+                    // Janela nula; repete sem redução e depois com a janela inteira se superar alfa
+                    eval = -negamax(board, depth - 1 - reduction, -alpha - 1, -alpha, ply + 1);
+                    if (reduction > 0 && eval > alpha && !stopped)
+                        eval = -negamax(board, depth - 1, -alpha - 1, -alpha, ply + 1);
+                    if (eval > alpha && eval < beta && !stopped)
+                        eval = -negamax(board, depth - 1, -beta, -alpha, ply + 1);
+                }
+                board.unmakeMove(move);
+
+                if (stopped)
+                    return 0;
+                movesSearched++;
+                if (quiet)
+                    quietsSearched++;
+
+                if (eval > bestEval) {
+                    bestEval = eval;
+                    bestMove = move;
+                }
+                if (eval > alpha) {
+                    alpha = eval;
+                    updatePrincipalVariation(ply, move);
+                    if (alpha >= beta) {
+                        if (quiet)
+                            moveOrdering.updateQuiet(board, move, ply, depth);
+                        break; // Poda alfa-beta
+                    }
+                }
+            }
+
+            // Sem lances legais: xeque-mate (mates mais rápidos valem mais) ou afogamento
+            if (legalMoves == 0)
+                return inCheck ? -(TranspositionTable.MATE_SCORE - ply) : 0;
+
+            int bound = TranspositionTable.EXACT;
+            if (bestEval <= originalAlpha)
+                bound = TranspositionTable.UPPER;
+            else if (bestEval >= beta)
+                bound = TranspositionTable.LOWER;
+            transpositionTable.store(hash, depth, bound, TranspositionTable.scoreToTable(bestEval, ply), bestMove);
+
+            return bestEval;
+        }
+
+        // SEE: o lance quieto leva a peça a uma casa onde ela é perdida na troca
+        private boolean isLosingQuiet(Board board, int move, int depth, int ply) {
+            return seePruning && depth <= SEE_QUIET_MAX_DEPTH && !moveOrdering.isKiller(move, ply)
+                    && !StaticExchange.isAtLeast(board, move, -SEE_QUIET_MARGIN * depth, exchangeGains);
+        }
+
+        // Poda de um lance quieto sem xeque depois do primeiro lance do nó
+        private boolean isPrunableQuiet(int depth, int quietsSearched, int staticEval, int alpha, boolean losingQuiet) {
+            // Late move pruning: com a ordenação, lances quietos tardios raramente servem
+            boolean lateMove = lateMovePruning && depth <= LATE_MOVE_MAX_DEPTH
+                    && quietsSearched >= LATE_MOVE_COUNTS[depth];
+            // Futility: nem a avaliação mais uma margem alcança alfa
+            boolean futile = futilityPruning && depth <= FUTILITY_MAX_DEPTH
+                    && staticEval + FUTILITY_MARGINS[depth] <= alpha;
+            return lateMove || futile || losingQuiet;
+        }
+
+        // Late move reductions: lances quietos sem xeque, tardios, são buscados com
+        // profundidade reduzida (menos na variante principal)
+        private int lateMoveReduction(int move, int depth, int movesSearched, boolean pvNode, int ply) {
+            if (!lateMoveReductions || depth < 3 || movesSearched < 3 || moveOrdering.isKiller(move, ply))
+                return 0;
+            int reduction = LMR_REDUCTIONS[Math.min(depth, 63)][Math.min(movesSearched, 63)];
+            if (pvNode)
+                reduction--;
+            return Math.max(0, Math.min(reduction, depth - 2));
+        }
+
+        // Tabela triangular: a linha do ply é o lance seguido da linha do ply seguinte
+        private void updatePrincipalVariation(int ply, int move) {
+            copyPrincipalVariation(ply, move, pvTable[ply + 1], pvLength[ply + 1]);
+        }
+
+        private void copyPrincipalVariation(int ply, int move, int[] childLine, int childLength) {
+            pvTable[ply][ply] = move;
+            System.arraycopy(childLine, ply + 1, pvTable[ply], ply + 1, Math.max(0, childLength - ply - 1));
+            pvLength[ply] = Math.max(childLength, ply + 1);
+        }
+
+        // Busca os irmãos mais novos em paralelo, cada um em uma cópia do
+        // tabuleiro e com a redução decidida pelo nó, e combina os resultados
+        // na ordem dos lances. As tarefas só
+        // leem este tabuleiro, que não muda enquanto invokeAll não retorna
+        private SplitPoint split(Board board, int[] moves, int[] reductions, int depth, int ply, int alpha, int beta) {
+            SplitPoint point = new SplitPoint(splitPoint, alpha, beta);
+            SplitTask[] tasks = new SplitTask[moves.length];
+            for (int i = 0; i < moves.length; i++) {
+                tasks[i] = new SplitTask(point, this, board, moves[i], reductions[i], depth, ply);
+            }
+            ForkJoinTask.invokeAll(tasks);
+
+            checkStop();
+            if (stopped)
+                return point;
+
+            point.bestAlpha = alpha;
+            for (SplitTask task : tasks) {
+                if (!task.finished)
+                    continue;
+                if (task.score > point.bestEval) {
+                    point.bestEval = task.score;
+                    point.bestMove = task.move;
+                }
+                // Só resultados que superaram o alfa da sua janela são valores confiáveis
+                if (task.exact && task.score > point.bestAlpha) {
+                    point.bestAlpha = task.score;
+                    point.bestEval = Math.max(point.bestEval, task.score);
+                    point.bestMove = task.move;
+                    copyPrincipalVariation(ply, task.move, task.line, task.line.length);
+                    if (point.bestAlpha >= beta)
+                        break;
+                }
+            }
+            return point;
+        }
+
+        // Busca de capturas (negamax, valores do ponto de vista de quem tem a vez).
+        // Parte da avaliação estática (stand pat) e descarta capturas que nem
+        // ganhando a peça alcançariam alfa (delta pruning). No primeiro ply, se o
+        // lado estiver em xeque, considera todas as respostas ao xeque
+        private int quiescence(Board board, int alpha, int beta, int ply, int qply) {
+            pvLength[ply] = ply;
+            if ((++nodes & (NODE_CHECK_INTERVAL - 1)) == 0)
+                checkStop();
+            if (stopped)
+                return 0;
+
+            boolean white = board.isWhiteTurn();
+            if (ply >= MAX_PLY)
+                return evaluate(board, white);
+
+            boolean inCheck = qply == 0 && isKingInCheck(board, white);
+            int standPat = -INFINITY;
+            int bestEval = -INFINITY;
+            if (!inCheck) {
+                standPat = evaluate(board, white);
+                if (standPat >= beta)
+                    return standPat;
+                alpha = Math.max(alpha, standPat);
+                bestEval = standPat;
+            }
+
+            // Em xeque todas as respostas legais; fora dele só capturas e promoções
+            // pseudo-legais, com a legalidade conferida antes de cada lance
+            MoveList moves = moveList(ply);
+            if (inCheck) {
+                generateLegalMoves(board, white, moves);
+                if (moves.isEmpty())
+                    return -(TranspositionTable.MATE_SCORE - ply);
+            } else {
+                MoveGenerator.generateCaptures(board, white, moves);
+            }
+            moveOrdering.scoreMoves(board, moves, PackedMove.NONE, ply);
+
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.pickBest(i);
+                if (!inCheck) {
+                    // Delta pruning: nem o valor da peça capturada (mais uma margem) chega a alfa
+                    if (standPat + captureGain(board, move) + DELTA_MARGIN <= alpha)
+                        continue;
+                    // Capturas que perdem material na troca da casa (SEE já feito na ordenação)
+                    if (seePruning && MoveOrdering.isLosingCapture(moves.getScore(i)))
+                        continue;
+                    if (!MoveGenerator.isLegal(board, move))
+                        continue;
+                }
+
+                board.makeMove(move);
+                int eval = -quiescence(board, -beta, -alpha, ply + 1, qply + 1);
+                board.unmakeMove(move);
+                if (stopped)
+                    return 0;
+
+                if (eval > bestEval) {
+                    bestEval = eval;
+                    if (eval > alpha) {
+                        alpha = eval;
+                        if (alpha >= beta)
+                            break;
+                    }
+                }
+            }
+            return bestEval;
+        }
+    }
+
+    // Ponto de divisão do modo fork/join: alfa compartilhado entre os irmãos
+    // em paralelo e o aviso de corte, que também interrompe as divisões abaixo
+    private static final class SplitPoint {
+        private final SplitPoint parent;
+        private final AtomicInteger alpha;
+        private final int beta;
+        private volatile boolean cutoff;
+
+        // Resultado combinado (preenchido pela thread que fez a divisão)
+        private int bestEval = -INFINITY;
+        private int bestMove = PackedMove.NONE;
+        private int bestAlpha;
+
+        SplitPoint(SplitPoint parent, int alpha, int beta) {
+            this.parent = parent;
+            this.alpha = new AtomicInteger(alpha);
+            this.beta = beta;
+        }
+
+        boolean isAborted() {
+            for (SplitPoint point = this; point != null; point = point.parent) {
+                if (point.cutoff)
+                    return true;
+            }
+            return false;
+        }
+    }
+
+    // Busca de um irmão mais novo: janela nula no alfa compartilhado do
+    // momento (com a redução do LMR, repetida sem ela se superar o alfa) e
+    // nova busca com a janela inteira se superá-lo
+    private final class SplitTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SplitPoint point;
+        private final SearchWorker parent;
+        private final Board position;
+        private final int move;
+        private final int reduction;
+        private final int depth;
+        private final int ply;
+
+        // Variante a partir do ply seguinte, copiada antes de devolver o worker ao pool
+        private int[] line;
+        private int score;
+        private boolean exact;
+        private boolean finished;
+
+        SplitTask(SplitPoint point, SearchWorker parent, Board board, int move, int reduction, int depth, int ply) {
+            this.point = point;
+            this.parent = parent;
+            this.position = board;
+            this.move = move;
+            this.reduction = reduction;
+            this.depth = depth;
+            this.ply = ply;
+        }
+
+        @Override
+        protected void compute() {
+            int alpha = point.alpha.get();
+            if (stopSearch || point.isAborted() || alpha >= point.beta)
+                return;
+
+            ArrayDeque<SearchWorker> workers = splitWorkers.get();
+            SearchWorker worker = workers.isEmpty() ? new SearchWorker(-1) : workers.pop();
+            try {
+                Board board = position.copyPosition();
+                worker.prepareSplit(point, board, parent.moveOrdering);
+
+                board.makeMove(move);
+                int value = -worker.negamax(board, depth - 1 - reduction, -alpha - 1, -alpha, ply + 1);
+                if (reduction > 0 && value > alpha && !worker.stopped)
+                    value = -worker.negamax(board, depth - 1, -alpha - 1, -alpha, ply + 1);
+                if (value > alpha && value < point.beta && !worker.stopped)
+                    value = -worker.negamax(board, depth - 1, -point.beta, -alpha, ply + 1);
+                splitNodes.addAndGet(worker.nodes);
+                if (worker.stopped)
+                    return;
+
+                score = value;
+                exact = value > alpha;
+                finished = true;
+                if (exact) {
+                    line = Arrays.copyOf(worker.pvTable[ply + 1], worker.pvLength[ply + 1]);
+                    point.alpha.accumulateAndGet(value, Math::max);
+                    if (value >= point.beta)
+                        point.cutoff = true;
                 }
+            } finally {
+                workers.push(worker);
             }
         }
-        return moves;
     }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package controller;
+
+import java.util.Arrays;
+
+/**
+ * Cache de avaliações estáticas com mapeamento direto.
+ *
+ * Cada entrada é um único long: os 44 bits altos da chave e o valor (20 bits
+ * com sinal) nos bits baixos. Como a entrada é gravada e lida de uma vez, as
+ * threads de busca compartilham o cache sem travas. A mesma folha alcançada
+ * por outra ordem de lances reaproveita a avaliação em vez de refazer as
+ * varreduras do tabuleiro.
+ */
+public final class EvalCache {
+
+    private static final int SCORE_BITS = 20;
+    private static final long SCORE_MASK = (1L << SCORE_BITS) - 1;
+
+    private final long[] table;
+    private final long indexMask;
+
+    // Estatísticas aproximadas (contadores sem sincronização)
+    private long probes;
+    private long hits;
+
+    public EvalCache(int sizeMB) {
+        if (sizeMB < 1)
+            throw new IllegalArgumentException("Tamanho do cache deve ser de pelo menos 1 MB");
+
+        // Número de entradas arredondado para baixo até uma potência de dois
+        long entries = Long.highestOneBit((long) sizeMB * 1024 * 1024 / Long.BYTES);
+        entries = Math.max(1, Math.min(entries, 1L << 28));
+        this.table = new long[(int) entries];
+        this.indexMask = entries - 1;
+    }
+
+    // Retorna a entrada da chave, ou 0 se não houver (valor lido com score)
+    public long probe(long key) {
+        long data = table[(int) (key & indexMask)];
+        probes++;
+        if (data != 0 && ((data ^ key) & ~SCORE_MASK) == 0) {
+            hits++;
+            return data;
+        }
+        return 0L;
+    }
+
+    public void store(long key, int score) {
+        table[(int) (key & indexMask)] = (key & ~SCORE_MASK) | (score & SCORE_MASK);
+    }
+
+    public static int score(long data) {
+        // Deslocamento aritmético recupera o sinal dos 20 bits
+        return (int) (data << (64 - SCORE_BITS) >> (64 - SCORE_BITS));
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+        resetStatistics();
+    }
+
+    public void resetStatistics() {
+        probes = 0;
+        hits = 0;
+    }
+
+    public long getProbes() {
+        return probes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    // Fração de consultas atendidas pelo cache (0 se não houve consultas)
+    public double getHitRate() {
+        return probes == 0 ? 0.0 : (double) hits / probes;
+    }
+}
@@ -8,8 +8,12 @@ import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import javax.swing.JOptionPane;
+import model.board.Bitboards;
 import model.board.Board;
 import model.board.Move;
+import model.board.MoveGenerator;
+import model.board.MoveList;
+import model.board.PackedMove;
 import model.board.Position;
 import model.pieces.*;
 
@@ -18,9 +22,10 @@ public class Game {
     private boolean isWhiteTurn;
     private boolean isGameOver;
     private Piece selectedPiece;
-    private Position lastPawnDoubleMove;
     private int movesSinceLastCaptureOrPawnMove;
     private List<Move> moveHistory = new ArrayList<>();
+    // Buffer reutilizado para os lances legais da posição atual
+    private final MoveList legalMoves = new MoveList();
 
     public Game() {
         board = new Board();
@@ -37,28 +42,28 @@ public class Game {
     private void setupPieces() {
         // Colocar peças na posição inicial
         // brancas
-        board.placePiece(new Rook(board, true), new Position(7, 0));
-        board.placePiece(new Knight(board, true), new Position(7, 1));
-        board.placePiece(new Bishop(board, true), new Position(7, 2));
-        board.placePiece(new Queen(board, true), new Position(7, 3));
-        board.placePiece(new King(board, true), new Position(7, 4));
-        board.placePiece(new Bishop(board, true), new Position(7, 5));
-        board.placePiece(new Knight(board, true), new Position(7, 6));
-        board.placePiece(new Rook(board, true), new Position(7, 7));
+        board.placePiece(new Rook(board, true), Position.of(7, 0));
+        board.placePiece(new Knight(board, true), Position.of(7, 1));
+        board.placePiece(new Bishop(board, true), Position.of(7, 2));
+        board.placePiece(new Queen(board, true), Position.of(7, 3));
+        board.placePiece(new King(board, true), Position.of(7, 4));
+        board.placePiece(new Bishop(board, true), Position.of(7, 5));
+        board.placePiece(new Knight(board, true), Position.of(7, 6));
+        board.placePiece(new Rook(board, true), Position.of(7, 7));
         for (int c = 0; c < 8; c++)
-            board.placePiece(new Pawn(board, true), new Position(6, c));
+            board.placePiece(new Pawn(board, true), Position.of(6, c));
 
         // pretas
-        board.placePiece(new Rook(board, false), new Position(0, 0));
-        board.placePiece(new Knight(board, false), new Position(0, 1));
-        board.placePiece(new Bishop(board, false), new Position(0, 2));
-        board.placePiece(new Queen(board, false), new Position(0, 3));
-        board.placePiece(new King(board, false), new Position(0, 4));
-        board.placePiece(new Bishop(board, false), new Position(0, 5));
-        board.placePiece(new Knight(board, false), new Position(0, 6));
-        board.placePiece(new Rook(board, false), new Position(0, 7));
+        board.placePiece(new Rook(board, false), Position.of(0, 0));
+        board.placePiece(new Knight(board, false), Position.of(0, 1));
+        board.placePiece(new Bishop(board, false), Position.of(0, 2));
+        board.placePiece(new Queen(board, false), Position.of(0, 3));
+        board.placePiece(new King(board, false), Position.of(0, 4));
+        board.placePiece(new Bishop(board, false), Position.of(0, 5));
+        board.placePiece(new Knight(board, false), Position.of(0, 6));
+        board.placePiece(new Rook(board, false), Position.of(0, 7));
         for (int c = 0; c < 8; c++)
-            board.placePiece(new Pawn(board, false), new Position(1, c));
+            board.placePiece(new Pawn(board, false), Position.of(1, c));
 
         // Peças pretas (mesma lógica)
         // ...
@@ -68,6 +73,11 @@ public class Game {
         return movePiece(from, to);
     }
 
+    // Lance da IA: a peça da promoção vem da busca, sem perguntar ao jogador
+    public boolean movePieceDirect(Position from, Position to, int promotionType) {
+        return movePiece(from, to, promotionType);
+    }
+
     public Board getBoard() {
         return board;
     }
@@ -101,127 +111,93 @@ public class Game {
     }
 
     public boolean movePiece(Position from, Position to) {
+        return movePiece(from, to, Bitboards.NO_PIECE);
+    }
+
+    // Sem tipo de promoção (NO_PIECE) a peça é escolhida pelo jogador
+    private boolean movePiece(Position from, Position to, int promotionType) {
         Piece piece = board.getPieceAt(from);
         if (piece == null || piece.isWhite() != isWhiteTurn || isGameOver)
             return false;
 
-        if (!piece.canMoveTo(to) || moveCausesCheck(piece, to))
+        // Só aceita lances do gerador legal (cravadas, xeque, roque e en passant)
+        boolean askPromotion = promotionType == Bitboards.NO_PIECE;
+        int legalMove = findLegalMove(from, to, askPromotion ? Bitboards.QUEEN : promotionType);
+        if (legalMove == PackedMove.NONE)
             return false;
 
-        Piece capturedPiece = board.getPieceAt(to);
-        
-        // Verificar se é um movimento de roque antes de mover o rei
-        boolean isCastling = piece instanceof King && Math.abs(to.getColumn() - from.getColumn()) == 2;
-        
-        board.removePiece(from);
-        board.placePiece(piece, to);
-        
-        // Executar o movimento da torre no roque
-        if (isCastling) {
-            int rookColumn = to.getColumn() > from.getColumn() ? 7 : 0;
-            int newRookColumn = to.getColumn() > from.getColumn() ? to.getColumn() - 1 : to.getColumn() + 1;
-            
-            Position rookPosition = new Position(from.getRow(), rookColumn);
-            Position newRookPosition = new Position(from.getRow(), newRookColumn);
-            
-            Piece rook = board.getPieceAt(rookPosition);
-            board.removePiece(rookPosition);
-            board.placePieceMove(rook, newRookPosition);
-        }
+        Move move = PackedMove.toMove(legalMove, board);
 
-        Move move = new Move(from, to, piece, capturedPiece);
+        checkSpecialConditions(piece, move, askPromotion);
 
-        if (isCastling)
-            move.setCastling(true);
-        else if (piece instanceof Pawn && Math.abs(to.getRow() - from.getRow()) == 2)
-            move.setEnPassant(true);
-        else if (piece instanceof Pawn && (to.getRow() == 0 || to.getRow() == 7))
-            move.setPromotion(true);
+        // O tabuleiro executa o lance completo (torre no roque, en passant e promoção)
+        board.makeMove(move);
 
         moveHistory.add(move);
-        checkSpecialConditions(piece, to);
         checkGameStatus(from, to);
 
         isWhiteTurn = !isWhiteTurn;
         selectedPiece = null;
 
-        // Captura en passant
-        if (piece instanceof Pawn) {
-            if (Math.abs(to.getRow() - from.getRow()) == 2)
-                lastPawnDoubleMove = to;
-            else if (Math.abs(to.getColumn() - from.getColumn()) == 1 && capturedPiece == null) {
-                Position capturedPawnPos = new Position(from.getRow(), to.getColumn());
-                board.removePiece(capturedPawnPos);
-            } else
-                lastPawnDoubleMove = null;
-        } else
-            lastPawnDoubleMove = null;
-
         return true;
     }
 
-    boolean moveCausesCheck(Piece piece, Position destination) {
-        Board tempBoard = board.clone();
-        Position originalPos = piece.getPosition();
-
-        Piece tempPiece = tempBoard.getPieceAt(originalPos);
-        tempBoard.removePiece(originalPos);
-        tempBoard.placePiece(tempPiece, destination);
-
-        // Encontrar posição do rei da mesma cor
-        Position kingPos = null;
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece p = tempBoard.getPieceAt(new Position(r, c));
-                if (p instanceof King && p.isWhite() == piece.isWhite()) {
-                    kingPos = p.getPosition();
-                    break;
-                }
-            }
-            if (kingPos != null)
-                break;
+    // Destinos legais da peça na posição informada (para destacar na interface)
+    public List<Position> getLegalMoves(Position from) {
+        List<Position> destinations = new ArrayList<>();
+        if (from == null)
+            return destinations;
+
+        MoveGenerator.generateLegal(board, legalMoves);
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int move = legalMoves.get(i);
+            Position to = Position.of(PackedMove.to(move));
+            if (PackedMove.from(move) == from.getSquare() && !destinations.contains(to))
+                destinations.add(to);
         }
+        return destinations;
+    }
 
-        return tempBoard.isUnderAttack(kingPos, !piece.isWhite());
+    // Procura o lance legal de from para to (promoções pelo tipo de peça informado)
+    private int findLegalMove(Position from, Position to, int promotionType) {
+        if (from == null || to == null)
+            return PackedMove.NONE;
+
+        MoveGenerator.generateLegal(board, legalMoves);
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int move = legalMoves.get(i);
+            if (PackedMove.from(move) == from.getSquare() && PackedMove.to(move) == to.getSquare()
+                    && (!PackedMove.isPromotion(move) || PackedMove.promotionType(move) == promotionType))
+                return move;
+        }
+        return PackedMove.NONE;
     }
 
-    private void checkSpecialConditions(Piece piece, Position destination) {
-        // Verificar promoção de peão
-        if (piece instanceof Pawn) {
-            if ((piece.isWhite() && destination.getRow() == 0) ||
-                    (!piece.isWhite() && destination.getRow() == 7)) {
-
-                // Perguntar ao jogador para qual peça deseja promover
-                String[] options = { "Rainha", "Torre", "Bispo", "Cavalo" };
-                int choice = JOptionPane.showOptionDialog(null,
-                        "Escolha uma peça para promoção:",
-                        "Promoção de Peão",
-                        JOptionPane.DEFAULT_OPTION,
-                        JOptionPane.QUESTION_MESSAGE,
-                        null, options, options[0]);
-
-                // Criar a nova peça
-                Piece newPiece;
-                switch (choice) {
-                    case 0:
-                        newPiece = new Queen(board, piece.isWhite());
-                        break;
-                    case 1:
-                        newPiece = new Rook(board, piece.isWhite());
-                        break;
-                    case 2:
-                        newPiece = new Bishop(board, piece.isWhite());
-                        break;
-                    case 3:
-                        newPiece = new Knight(board, piece.isWhite());
-                        break;
-                    default:
-                        newPiece = new Queen(board, piece.isWhite());
-                }
-
-                // Substituir o peão pela nova peça
-                board.removePiece(destination);
-                board.placePiece(newPiece, destination);
+    private void checkSpecialConditions(Piece piece, Move move, boolean askPromotion) {
+        // Verificar promoção de peão (lances da IA já trazem a peça escolhida)
+        if (move.isPromotion() && askPromotion) {
+            // Perguntar ao jogador para qual peça deseja promover
+            String[] options = { "Rainha", "Torre", "Bispo", "Cavalo" };
+            int choice = JOptionPane.showOptionDialog(null,
+                    "Escolha uma peça para promoção:",
+                    "Promoção de Peão",
+                    JOptionPane.DEFAULT_OPTION,
+                    JOptionPane.QUESTION_MESSAGE,
+                    null, options, options[0]);
+
+            // Definir a nova peça (o tabuleiro substitui o peão ao executar o lance)
+            switch (choice) {
+                case 1:
+                    move.setPromotionType(Bitboards.ROOK);
+                    break;
+                case 2:
+                    move.setPromotionType(Bitboards.BISHOP);
+                    break;
+                case 3:
+                    move.setPromotionType(Bitboards.KNIGHT);
+                    break;
+                default:
+                    move.setPromotionType(Bitboards.QUEEN);
             }
         }
 
@@ -246,26 +222,8 @@ public class Game {
     }
 
     public boolean isInCheck(boolean whiteKing) {
-        // Encontrar a posição do rei
-        Position kingPosition = null;
-
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Position pos = new Position(row, col);
-                Piece piece = board.getPieceAt(pos);
-
-                if (piece instanceof King &&
-                        piece.isWhite() == whiteKing) {
-                    kingPosition = pos;
-                    break;
-                }
-            }
-            if (kingPosition != null)
-                break;
-        }
-
         // Verificar se alguma peça adversária pode capturar o rei
-        return board.isUnderAttack(kingPosition, !whiteKing);
+        return board.isUnderAttack(board.getKingPosition(whiteKing), !whiteKing);
     }
 
     public boolean undoLastMove() {
@@ -275,36 +233,8 @@ public class Game {
 
         Move lastMove = moveHistory.remove(moveHistory.size() - 1);
 
-        // Mover a peça de volta
-        board.removePiece(lastMove.getTo());
-        board.placePiece(lastMove.getPiece(), lastMove.getFrom());
-
-        // Restaurar peça capturada, se houver
-        if (lastMove.getCapturedPiece() != null) {
-            board.placePiece(lastMove.getCapturedPiece(),
-                    lastMove.getTo());
-        }
-
-        // Lidar com casos especiais (roque, en passant, promoção)
-        if (lastMove.isCastling()) {
-            // Desfazer o movimento do rei
-            Piece king = lastMove.getPiece();
-            Position from = lastMove.getFrom();
-            Position to = lastMove.getTo();
-            board.removePiece(to);
-            board.placePiece(king, from);
-
-            // Desfazer o movimento da torre
-            int rookOriginalCol = (to.getColumn() == 6) ? 7 : 0;
-            int rookNewCol = (to.getColumn() == 6) ? 5 : 3;
-
-            Position rookNewPos = new Position(from.getRow(), rookNewCol);
-            Position rookOriginalPos = new Position(from.getRow(), rookOriginalCol);
-
-            Piece rook = board.getPieceAt(rookNewPos);
-            board.removePiece(rookNewPos);
-            board.placePiece(rook, rookOriginalPos);
-        }
+        // O tabuleiro restaura peça capturada, roque, en passant e promoção
+        board.unmakeMove(lastMove);
 
         // Restaurar o turno
         isWhiteTurn = !isWhiteTurn;
@@ -313,28 +243,14 @@ public class Game {
     }
 
     private boolean isCheckmate(boolean whiteKing) {
-        if (!isInCheck(whiteKing)) {
+        // Só o lado que tem a vez pode estar em xeque-mate
+        if (whiteKing != board.isWhiteTurn() || !isInCheck(whiteKing)) {
             return false;
         }
 
         // Verificar se há algum movimento legal para sair do xeque
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Position pos = new Position(row, col);
-                Piece piece = board.getPieceAt(pos);
-
-                if (piece != null && piece.isWhite() == whiteKing) {
-                    for (Object obj : piece.getPossibleMoves()) {
-                        Position movePos = (Position) obj;
-                        // Testar se o movimento tira o rei do xeque
-                        if (!moveCausesCheck(piece, movePos)) {
-                            return false;
-                        }
-                    }
-                }
-            }
-        }
-        return true;
+        MoveGenerator.generateLegal(board, legalMoves);
+        return legalMoves.isEmpty();
     }
 
     public void saveGame(String filePath) {
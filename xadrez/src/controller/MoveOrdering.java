@@ -0,0 +1,133 @@
+package controller;
+
+import model.board.Bitboards;
+import model.board.Board;
+import model.board.MoveList;
+import model.board.PackedMove;
+import model.board.StaticExchange;
+
+/**
+ * Pontuação dos lances para a ordem de busca: primeiro o lance da tabela de
+ * transposição, depois capturas que não perdem material na troca (vítima
+ * mais valiosa, atacante menos valioso), os dois lances killer do ply, os
+ * lances quietos pelo histórico [peça][casa de destino] e por fim as
+ * capturas perdedoras segundo a avaliação estática de trocas.
+ *
+ * Cada busca (ou thread de busca) deve ter a sua própria instância.
+ */
+public final class MoveOrdering {
+
+    private static final int HASH_MOVE_SCORE = 10_000_000;
+    private static final int CAPTURE_SCORE = 1_000_000;
+    private static final int KILLER_1_SCORE = 900_000;
+    private static final int KILLER_2_SCORE = 800_000;
+    private static final int HISTORY_MAX = 500_000;
+    private static final int BAD_CAPTURE_SCORE = -1_000_000;
+
+    // Valores por tipo de peça usados no MVV-LVA (PAWN..KING)
+    private static final int[] MVV_LVA_VALUE = { 1, 3, 3, 5, 9, 20 };
+
+    private final int[][] killers;
+    private final int[][] history = new int[12][64];
+
+    // Área de trabalho da SEE, reaproveitada entre as chamadas
+    private final int[] exchangeGains = new int[StaticExchange.MAX_EXCHANGES];
+
+    public MoveOrdering(int maxPly) {
+        killers = new int[maxPly + 1][2];
+    }
+
+    // Killers valem para uma busca; o histórico é reduzido à metade para
+    // continuar útil sem dominar a próxima busca
+    public void newSearch() {
+        for (int[] ply : killers) {
+            ply[0] = PackedMove.NONE;
+            ply[1] = PackedMove.NONE;
+        }
+        for (int[] piece : history) {
+            for (int square = 0; square < 64; square++) {
+                piece[square] >>= 1;
+            }
+        }
+    }
+
+    // Copia killers e histórico de outra instância (buscas dos pontos de divisão)
+    public void copyFrom(MoveOrdering other) {
+        for (int ply = 0; ply < killers.length && ply < other.killers.length; ply++) {
+            killers[ply][0] = other.killers[ply][0];
+            killers[ply][1] = other.killers[ply][1];
+        }
+        for (int piece = 0; piece < history.length; piece++) {
+            System.arraycopy(other.history[piece], 0, history[piece], 0, 64);
+        }
+    }
+
+    public void scoreMoves(Board board, MoveList moves, int hashMove, int ply) {
+        for (int i = 0; i < moves.size(); i++) {
+            moves.setScore(i, score(board, moves.get(i), hashMove, ply));
+        }
+    }
+
+    private int score(Board board, int move, int hashMove, int ply) {
+        if (move == hashMove)
+            return HASH_MOVE_SCORE;
+
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int attacker = Bitboards.typeOfCode(board.getPieceCodeAt(from));
+
+        if (PackedMove.isTactical(move)) {
+            // No en passant a casa de destino está vazia: a vítima é um peão
+            int victimCode = board.getPieceCodeAt(to);
+            int victim = victimCode == Bitboards.NO_PIECE ? Bitboards.PAWN : Bitboards.typeOfCode(victimCode);
+            int score = MVV_LVA_VALUE[victim] * 100 - MVV_LVA_VALUE[attacker];
+            if (PackedMove.isPromotion(move))
+                score += MVV_LVA_VALUE[PackedMove.promotionType(move)] * 100;
+
+            // Atacante mais valioso que a vítima: confere a troca completa na casa
+            boolean losing = !PackedMove.isPromotion(move) && MVV_LVA_VALUE[attacker] > MVV_LVA_VALUE[victim]
+                    && StaticExchange.evaluate(board, move, exchangeGains) < 0;
+            return (losing ? BAD_CAPTURE_SCORE : CAPTURE_SCORE) + score;
+        }
+
+        if (move == killers[ply][0])
+            return KILLER_1_SCORE;
+        if (move == killers[ply][1])
+            return KILLER_2_SCORE;
+        return history[board.getPieceCodeAt(from)][to];
+    }
+
+    // Captura que perde material na troca, pela pontuação dada por scoreMoves
+    // (as capturas perdedoras são as únicas com pontuação negativa)
+    public static boolean isLosingCapture(int score) {
+        return score < 0;
+    }
+
+    // Killer do ply (slot 0 é o mais recente)
+    public int getKiller(int ply, int slot) {
+        return killers[ply][slot];
+    }
+
+    public boolean isKiller(int move, int ply) {
+        return move == killers[ply][0] || move == killers[ply][1];
+    }
+
+    // Chamado quando um lance quieto provoca corte beta
+    public void updateQuiet(Board board, int move, int ply, int depth) {
+        if (move != killers[ply][0]) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+
+        int[] pieceHistory = history[board.getPieceCodeAt(PackedMove.from(move))];
+        int to = PackedMove.to(move);
+        pieceHistory[to] += depth * depth;
+        if (pieceHistory[to] > HISTORY_MAX) {
+            for (int[] piece : history) {
+                for (int square = 0; square < 64; square++) {
+                    piece[square] >>= 1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package controller;
+
+import model.board.Board;
+import model.board.MoveGenerator;
+import model.board.MoveList;
+import model.board.PackedMove;
+
+/**
+ * Seletor de lances em etapas para a busca principal.
+ *
+ * Entrega primeiro o lance da tabela de transposição (sem gerar nada),
+ * depois as capturas que não perdem material, os dois killers do ply, os
+ * lances quietos (gerados só quando a etapa é alcançada) e por fim as
+ * capturas perdedoras. Os lances são pseudo-legais: quem busca confere a
+ * legalidade de cada um logo antes de executá-lo, de modo que um corte no
+ * primeiro lance evita quase toda a geração e a verificação dos demais.
+ *
+ * A busca mantém uma instância por ply e a reutiliza entre os nós.
+ */
+final class MovePicker {
+
+    private static final int HASH_MOVE = 0;
+    private static final int GENERATE_CAPTURES = 1;
+    private static final int GOOD_CAPTURES = 2;
+    private static final int KILLER_1 = 3;
+    private static final int KILLER_2 = 4;
+    private static final int GENERATE_QUIETS = 5;
+    private static final int QUIETS = 6;
+    private static final int BAD_CAPTURES = 7;
+    private static final int DONE = 8;
+
+    private final MoveList captures = new MoveList();
+    private final MoveList quiets = new MoveList();
+
+    private Board board;
+    private MoveOrdering moveOrdering;
+    private int ply;
+    private int stage;
+    private int hashMove;
+    private int killer1;
+    private int killer2;
+    private int captureIndex;
+    private int quietIndex;
+
+    void init(Board board, MoveOrdering moveOrdering, int hashMove, int ply) {
+        this.board = board;
+        this.moveOrdering = moveOrdering;
+        this.ply = ply;
+        // O lance da tabela pode ser de outra posição com a mesma entrada
+        this.hashMove = MoveGenerator.isPseudoLegal(board, hashMove) ? hashMove : PackedMove.NONE;
+        killer1 = PackedMove.NONE;
+        killer2 = PackedMove.NONE;
+        stage = HASH_MOVE;
+    }
+
+    // Próximo lance pseudo-legal, ou PackedMove.NONE quando acabarem
+    int next() {
+        while (true) {
+            switch (stage) {
+                case HASH_MOVE:
+                    stage = GENERATE_CAPTURES;
+                    if (hashMove != PackedMove.NONE)
+                        return hashMove;
+                    break;
+
+                case GENERATE_CAPTURES:
+                    MoveGenerator.generateCaptures(board, board.isWhiteTurn(), captures);
+                    moveOrdering.scoreMoves(board, captures, PackedMove.NONE, ply);
+                    captureIndex = 0;
+                    stage = GOOD_CAPTURES;
+                    break;
+
+                case GOOD_CAPTURES:
+                    // As capturas perdedoras ficam a partir de captureIndex para a última etapa
+                    while (captureIndex < captures.size()) {
+                        int move = captures.pickBest(captureIndex);
+                        if (MoveOrdering.isLosingCapture(captures.getScore(captureIndex)))
+                            break;
+                        captureIndex++;
+                        if (move != hashMove)
+                            return move;
+                    }
+                    stage = KILLER_1;
+                    break;
+
+                case KILLER_1:
+                    stage = KILLER_2;
+                    killer1 = moveOrdering.getKiller(ply, 0);
+                    if (isValidKiller(killer1))
+                        return killer1;
+                    break;
+
+                case KILLER_2:
+                    stage = GENERATE_QUIETS;
+                    killer2 = moveOrdering.getKiller(ply, 1);
+                    if (killer2 != killer1 && isValidKiller(killer2))
+                        return killer2;
+                    break;
+
+                case GENERATE_QUIETS:
+                    MoveGenerator.generateQuiets(board, board.isWhiteTurn(), quiets);
+                    moveOrdering.scoreMoves(board, quiets, PackedMove.NONE, ply);
+                    quietIndex = 0;
+                    stage = QUIETS;
+                    break;
+
+                case QUIETS:
+                    while (quietIndex < quiets.size()) {
+                        int move = quiets.pickBest(quietIndex++);
+                        if (move != hashMove && move != killer1 && move != killer2)
+                            return move;
+                    }
+                    stage = BAD_CAPTURES;
+                    break;
+
+                case BAD_CAPTURES:
+                    while (captureIndex < captures.size()) {
+                        int move = captures.pickBest(captureIndex++);
+                        if (move != hashMove)
+                            return move;
+                    }
+                    stage = DONE;
+                    break;
+
+                default:
+                    return PackedMove.NONE;
+            }
+        }
+    }
+
+    // Killers são lances quietos de outros nós do mesmo ply: valem se forem pseudo-legais aqui
+    private boolean isValidKiller(int move) {
+        return move != PackedMove.NONE && move != hashMove && !PackedMove.isTactical(move)
+                && MoveGenerator.isPseudoLegal(board, move);
+    }
+}
@@ -0,0 +1,78 @@
+package controller;
+
+import java.util.Arrays;
+
+/**
+ * Tabela de hash de estrutura de peões, indexada pela chave só dos peões.
+ *
+ * Como na tabela de transposição, cada entrada ocupa dois longs (a chave XOR
+ * os dados e os dados), o que permite o acesso simultâneo das threads de
+ * busca sem travas. A estrutura de peões muda pouco dentro da árvore de
+ * busca, então a maioria das consultas encontra a entrada já calculada.
+ * As entradas são de substituição sempre (mapeamento direto).
+ */
+public final class PawnHashTable {
+
+    private static final int ENTRY_LONGS = 2;
+    private static final int ENTRY_BYTES = ENTRY_LONGS * Long.BYTES;
+
+    private final long[] table;
+    private final long indexMask;
+
+    // Estatísticas aproximadas (contadores sem sincronização)
+    private long probes;
+    private long hits;
+
+    public PawnHashTable(int sizeMB) {
+        if (sizeMB < 1)
+            throw new IllegalArgumentException("Tamanho da tabela deve ser de pelo menos 1 MB");
+
+        // Número de entradas arredondado para baixo até uma potência de dois
+        long entries = Long.highestOneBit((long) sizeMB * 1024 * 1024 / ENTRY_BYTES);
+        entries = Math.max(1, Math.min(entries, 1L << 28));
+        this.table = new long[(int) (entries * ENTRY_LONGS)];
+        this.indexMask = entries - 1;
+    }
+
+    // Retorna os dados guardados para a chave, ou 0 se não houver
+    public long probe(long key) {
+        int index = (int) (key & indexMask) * ENTRY_LONGS;
+        long data = table[index + 1];
+        probes++;
+        if (data != 0 && (table[index] ^ data) == key) {
+            hits++;
+            return data;
+        }
+        return 0L;
+    }
+
+    // Os dados não podem ser 0 (valor reservado para entrada vazia)
+    public void store(long key, long data) {
+        int index = (int) (key & indexMask) * ENTRY_LONGS;
+        table[index + 1] = data;
+        table[index] = key ^ data;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+        resetStatistics();
+    }
+
+    public void resetStatistics() {
+        probes = 0;
+        hits = 0;
+    }
+
+    public long getProbes() {
+        return probes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    // Fração de consultas atendidas pela tabela (0 se não houve consultas)
+    public double getHitRate() {
+        return probes == 0 ? 0.0 : (double) hits / probes;
+    }
+}
@@ -0,0 +1,198 @@
+package controller;
+
+import model.board.Bitboards;
+import model.board.Board;
+
+/**
+ * Avaliação da estrutura de peões a partir dos bitboards de peões.
+ *
+ * Os termos que dependem apenas dos peões (dobrados, isolados, passados,
+ * atrasados e colunas sem peões) são calculados por evaluate e compactados
+ * em um long para a PawnHashTable:
+ * bits 0-15 valor de meio-jogo, 16-31 valor de final (com sinal, do ponto de
+ * vista das brancas), 32-39 colunas sem peões brancos, 40-47 colunas sem
+ * peões pretos e bit 48 sempre ligado (os dados nunca são 0).
+ * O escudo de peões depende também da casa do rei e é calculado à parte.
+ */
+final class PawnStructure {
+
+    private static final int DOUBLED_MG = -10;
+    private static final int DOUBLED_EG = -20;
+    private static final int ISOLATED_MG = -10;
+    private static final int ISOLATED_EG = -15;
+    private static final int BACKWARD_MG = -8;
+    private static final int BACKWARD_EG = -10;
+
+    // Peões passados por avanço (casas andadas a partir da linha inicial)
+    private static final int[] PASSED_MG = { 0, 5, 10, 15, 25, 40, 60, 0 };
+    private static final int[] PASSED_EG = { 0, 10, 20, 35, 60, 90, 130, 0 };
+
+    // Escudo do rei: peões uma e duas casas à frente, coluna sem peão próprio
+    private static final int SHIELD_NEAR = 10;
+    private static final int SHIELD_FAR = 5;
+    private static final int SHIELD_OPEN_FILE = -15;
+
+    // Torres em colunas abertas (sem peões) ou semi-abertas (sem peões próprios)
+    private static final int ROOK_OPEN_FILE = 25;
+    private static final int ROOK_HALF_OPEN_FILE = 15;
+
+    private static final long[] FILES = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    private static final long[] ROWS = new long[8];
+
+    // Linhas à frente de cada linha para cada cor (índice de cor em Bitboards)
+    private static final long[][] ROWS_AHEAD = new long[2][8];
+
+    private static final int SCORE_BITS = 16;
+    private static final int OPEN_FILES_SHIFT = 32;
+    private static final long VALID = 1L << 48;
+
+    static {
+        for (int i = 0; i < 8; i++) {
+            FILES[i] = Bitboards.FILE_A << i;
+            ROWS[i] = Bitboards.RANK_8 << (i * 8);
+        }
+        for (int i = 0; i < 8; i++) {
+            ADJACENT_FILES[i] = (i > 0 ? FILES[i - 1] : 0L) | (i < 7 ? FILES[i + 1] : 0L);
+            for (int row = 0; row < 8; row++) {
+                // Brancas avançam para a linha 0, pretas para a linha 7
+                if (row < i)
+                    ROWS_AHEAD[Bitboards.WHITE][i] |= ROWS[row];
+                if (row > i)
+                    ROWS_AHEAD[Bitboards.BLACK][i] |= ROWS[row];
+            }
+        }
+    }
+
+    private PawnStructure() {
+    }
+
+    // Consulta a tabela e calcula a estrutura em caso de falha
+    static long probe(PawnHashTable table, Board board) {
+        long key = board.getPawnHash();
+        long data = table.probe(key);
+        if (data == 0) {
+            data = evaluate(board);
+            table.store(key, data);
+        }
+        return data;
+    }
+
+    // Calcula os termos dependentes apenas dos peões
+    static long evaluate(Board board) {
+        long whitePawns = board.getBitboard(Bitboards.PAWN, true);
+        long blackPawns = board.getBitboard(Bitboards.PAWN, false);
+        int[] white = evaluateSide(whitePawns, blackPawns, true);
+        int[] black = evaluateSide(blackPawns, whitePawns, false);
+
+        int midgame = white[0] - black[0];
+        int endgame = white[1] - black[1];
+        return ((long) midgame & 0xFFFF)
+                | ((long) endgame & 0xFFFF) << SCORE_BITS
+                | (long) emptyFiles(whitePawns) << OPEN_FILES_SHIFT
+                | (long) emptyFiles(blackPawns) << (OPEN_FILES_SHIFT + 8)
+                | VALID;
+    }
+
+    private static int[] evaluateSide(long own, long enemy, boolean white) {
+        int color = Bitboards.colorIndex(white);
+        int midgame = 0;
+        int endgame = 0;
+
+        for (int file = 0; file < 8; file++) {
+            int count = Bitboards.popCount(own & FILES[file]);
+            if (count > 1) {
+                midgame += DOUBLED_MG * (count - 1);
+                endgame += DOUBLED_EG * (count - 1);
+            }
+        }
+
+        for (long pawns = own; pawns != 0; pawns = Bitboards.popLsb(pawns)) {
+            int square = Bitboards.lsb(pawns);
+            int row = Bitboards.rowOf(square);
+            int file = Bitboards.columnOf(square);
+            long ahead = ROWS_AHEAD[color][row];
+
+            // Passado: nenhum peão inimigo à frente na mesma coluna ou nas vizinhas
+            if ((enemy & (FILES[file] | ADJACENT_FILES[file]) & ahead) == 0) {
+                int advance = white ? 7 - row : row;
+                midgame += PASSED_MG[advance];
+                endgame += PASSED_EG[advance];
+            }
+
+            if ((own & ADJACENT_FILES[file]) == 0) {
+                midgame += ISOLATED_MG;
+                endgame += ISOLATED_EG;
+            } else if ((own & ADJACENT_FILES[file] & ~ahead) == 0) {
+                // Atrasado: os vizinhos já passaram e a casa da frente é atacada por peão
+                int attackerRow = white ? row - 2 : row + 2;
+                if (attackerRow >= 0 && attackerRow < 8 && (enemy & ADJACENT_FILES[file] & ROWS[attackerRow]) != 0) {
+                    midgame += BACKWARD_MG;
+                    endgame += BACKWARD_EG;
+                }
+            }
+        }
+        return new int[] { midgame, endgame };
+    }
+
+    // Máscara de 8 bits das colunas sem nenhum peão do bitboard
+    private static int emptyFiles(long pawns) {
+        int mask = 0;
+        for (int file = 0; file < 8; file++) {
+            if ((pawns & FILES[file]) == 0)
+                mask |= 1 << file;
+        }
+        return mask;
+    }
+
+    static int midgame(long data) {
+        return (short) data;
+    }
+
+    static int endgame(long data) {
+        return (short) (data >>> SCORE_BITS);
+    }
+
+    // Colunas sem peões da cor (bit i = coluna i)
+    static int emptyFiles(long data, boolean white) {
+        return (int) (data >>> (OPEN_FILES_SHIFT + (white ? 0 : 8))) & 0xFF;
+    }
+
+    // Bônus das torres da cor em colunas abertas ou semi-abertas
+    static int rookFiles(Board board, long data, boolean white) {
+        int ownEmpty = emptyFiles(data, white);
+        int enemyEmpty = emptyFiles(data, !white);
+        int bonus = 0;
+        for (int i = 0; i < board.countPieces(Bitboards.ROOK, white); i++) {
+            int file = Bitboards.columnOf(board.getPieceSquare(Bitboards.ROOK, white, i));
+            if ((ownEmpty & (1 << file)) != 0)
+                bonus += (enemyEmpty & (1 << file)) != 0 ? ROOK_OPEN_FILE : ROOK_HALF_OPEN_FILE;
+        }
+        return bonus;
+    }
+
+    // Escudo de peões do rei da cor (termo de meio-jogo)
+    static int kingShield(Board board, boolean white) {
+        int kingSquare = board.getKingSquare(white);
+        if (kingSquare < 0)
+            return 0;
+        int row = Bitboards.rowOf(kingSquare);
+        int file = Bitboards.columnOf(kingSquare);
+
+        // Só vale para o rei ainda nas duas primeiras linhas
+        int near = white ? row - 1 : row + 1;
+        int far = white ? row - 2 : row + 2;
+        if (far < 0 || far > 7 || (white ? row < 6 : row > 1))
+            return 0;
+
+        long own = board.getBitboard(Bitboards.PAWN, white);
+        long shieldFiles = FILES[file] | ADJACENT_FILES[file];
+        int shield = Bitboards.popCount(own & shieldFiles & ROWS[near]) * SHIELD_NEAR
+                + Bitboards.popCount(own & shieldFiles & ROWS[far]) * SHIELD_FAR;
+        for (int f = Math.max(0, file - 1); f <= Math.min(7, file + 1); f++) {
+            if ((own & FILES[f]) == 0)
+                shield += SHIELD_OPEN_FILE;
+        }
+        return shield;
+    }
+}
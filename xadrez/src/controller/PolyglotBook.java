@@ -0,0 +1,231 @@
+package controller;
+
+import model.board.Attacks;
+import model.board.Bitboards;
+import model.board.Board;
+import model.board.MoveGenerator;
+import model.board.MoveList;
+import model.board.PackedMove;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Livro de aberturas no formato Polyglot (.bin).
+ *
+ * O arquivo é uma sequência de entradas de 16 bytes (chave de 64 bits, lance
+ * de 16 bits, peso de 16 bits e 32 bits de aprendizado, em big-endian),
+ * ordenadas pela chave. O arquivo é mapeado em memória e consultado por
+ * busca binária; entre as entradas da posição, o lance é sorteado com
+ * probabilidade proporcional ao peso.
+ *
+ * A chave Polyglot não é o hash de Zobrist do Board: ela usa uma tabela fixa
+ * de 781 números aleatórios definida pelo formato, que não acompanha este
+ * projeto. A tabela é lida de um arquivo de texto com os 781 valores em
+ * hexadecimal (por exemplo, o vetor Random64 do código-fonte do Polyglot), no
+ * diretório book ou embutido em resources/book, e conferida pela chave
+ * conhecida da posição inicial. O README descreve os arquivos esperados.
+ */
+public final class PolyglotBook {
+
+    // Arquivos procurados por padrão, relativos ao diretório de trabalho
+    public static final Path DEFAULT_BOOK_FILE = Paths.get("book", "book.bin");
+    public static final Path DEFAULT_RANDOMS_FILE = Paths.get("book", "random64.txt");
+
+    // Tabela embutida no classpath, usada quando não há arquivo no diretório book
+    private static final String RANDOMS_RESOURCE = "/resources/book/random64.txt";
+
+    private static final int ENTRY_BYTES = 16;
+
+    // Índices na tabela de números aleatórios do formato
+    private static final int RANDOM_COUNT = 781;
+    private static final int RANDOM_CASTLING = 768;
+    private static final int RANDOM_EN_PASSANT = 772;
+    private static final int RANDOM_TURN = 780;
+
+    // Chave Polyglot da posição inicial, usada para validar a tabela carregada
+    private static final long START_POSITION_KEY = 0x463B96181691FC9CL;
+    private static final String START_POSITION_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final Pattern HEX_VALUE = Pattern.compile("0x([0-9A-Fa-f]{16})");
+
+    private final MappedByteBuffer entries;
+    private final int entryCount;
+    private final long[] randoms;
+
+    private PolyglotBook(MappedByteBuffer entries, long[] randoms) {
+        this.entries = entries;
+        this.entryCount = entries.capacity() / ENTRY_BYTES;
+        this.randoms = randoms;
+    }
+
+    // Abre o livro e a tabela de números aleatórios
+    public static PolyglotBook open(Path bookFile, Path randomsFile) throws IOException {
+        String text = new String(Files.readAllBytes(randomsFile), StandardCharsets.UTF_8);
+        return open(bookFile, parseRandoms(text, randomsFile.toString()), randomsFile.toString());
+    }
+
+    private static PolyglotBook open(Path bookFile, long[] randoms, String source) throws IOException {
+        try (FileChannel channel = FileChannel.open(bookFile, StandardOpenOption.READ)) {
+            // O mapeamento continua válido depois de fechar o canal
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            PolyglotBook book = new PolyglotBook(buffer, randoms);
+            if (book.key(Board.fromFen(START_POSITION_FEN)) != START_POSITION_KEY)
+                throw new IOException("Tabela de números aleatórios não corresponde ao formato Polyglot: " + source);
+            return book;
+        }
+    }
+
+    // Livro no arquivo padrão, ou null se ele não existir ou não puder ser usado
+    public static PolyglotBook openDefault() {
+        if (!Files.isRegularFile(DEFAULT_BOOK_FILE))
+            return null;
+        try {
+            if (Files.isRegularFile(DEFAULT_RANDOMS_FILE))
+                return open(DEFAULT_BOOK_FILE, DEFAULT_RANDOMS_FILE);
+            try (InputStream input = PolyglotBook.class.getResourceAsStream(RANDOMS_RESOURCE)) {
+                if (input == null)
+                    throw new IOException("tabela Random64 não encontrada em " + DEFAULT_RANDOMS_FILE
+                            + " nem em " + RANDOMS_RESOURCE + " (ver README)");
+                String text = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+                return open(DEFAULT_BOOK_FILE, parseRandoms(text, RANDOMS_RESOURCE), RANDOMS_RESOURCE);
+            }
+        } catch (IOException e) {
+            System.err.println("Livro de aberturas não carregado: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Os 781 valores em hexadecimal (0x...), em ordem; o resto do texto é ignorado
+    private static long[] parseRandoms(String text, String source) throws IOException {
+        Matcher matcher = HEX_VALUE.matcher(text);
+        long[] randoms = new long[RANDOM_COUNT];
+        int count = 0;
+        while (matcher.find()) {
+            if (count == RANDOM_COUNT)
+                throw new IOException("Mais de " + RANDOM_COUNT + " valores em " + source);
+            randoms[count++] = Long.parseUnsignedLong(matcher.group(1), 16);
+        }
+        if (count != RANDOM_COUNT)
+            throw new IOException("Esperados " + RANDOM_COUNT + " valores em " + source + ", encontrados " + count);
+        return randoms;
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    // Chave Polyglot da posição
+    public long key(Board board) {
+        long key = 0L;
+        long occupied = board.getOccupancy();
+        while (occupied != 0) {
+            int square = Bitboards.lsb(occupied);
+            occupied = Bitboards.popLsb(occupied);
+            int code = board.getPieceCodeAt(square);
+            // Peças na ordem peão preto, peão branco, cavalo preto...; linha 0 do formato é a primeira fileira
+            int kind = 2 * Bitboards.typeOfCode(code) + (Bitboards.isWhiteCode(code) ? 1 : 0);
+            int row = 7 - Bitboards.rowOf(square);
+            key ^= randoms[64 * kind + 8 * row + Bitboards.columnOf(square)];
+        }
+
+        int rights = board.getCastlingRights();
+        int[] castlingBits = { Board.WHITE_KINGSIDE, Board.WHITE_QUEENSIDE, Board.BLACK_KINGSIDE, Board.BLACK_QUEENSIDE };
+        for (int i = 0; i < castlingBits.length; i++) {
+            if ((rights & castlingBits[i]) != 0)
+                key ^= randoms[RANDOM_CASTLING + i];
+        }
+
+        // En passant só entra na chave se um peão do lado que tem a vez puder capturar
+        int enPassant = board.getEnPassantSquare();
+        boolean white = board.isWhiteTurn();
+        if (enPassant >= 0 && (Attacks.pawnAttacks(enPassant, !white) & board.getBitboard(Bitboards.PAWN, white)) != 0)
+            key ^= randoms[RANDOM_EN_PASSANT + Bitboards.columnOf(enPassant)];
+
+        if (white)
+            key ^= randoms[RANDOM_TURN];
+        return key;
+    }
+
+    // Sorteia um lance do livro pelo peso; PackedMove.NONE se a posição não estiver no livro
+    public int probe(Board board, Random random) {
+        long key = key(board);
+        int first = lowerBound(key);
+
+        int totalWeight = 0;
+        int last = first;
+        while (last < entryCount && entryKey(last) == key) {
+            totalWeight += entryWeight(last);
+            last++;
+        }
+        if (totalWeight == 0)
+            return PackedMove.NONE;
+
+        int pick = random.nextInt(totalWeight);
+        for (int i = first; i < last; i++) {
+            pick -= entryWeight(i);
+            if (pick < 0)
+                return toPackedMove(board, entryMove(i));
+        }
+        return PackedMove.NONE;
+    }
+
+    // Primeira entrada com chave maior ou igual (chaves comparadas sem sinal)
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(entryKey(middle), key) < 0)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    private long entryKey(int index) {
+        return entries.getLong(index * ENTRY_BYTES);
+    }
+
+    private int entryMove(int index) {
+        return entries.getShort(index * ENTRY_BYTES + 8) & 0xFFFF;
+    }
+
+    private int entryWeight(int index) {
+        return entries.getShort(index * ENTRY_BYTES + 10) & 0xFFFF;
+    }
+
+    // Converte o lance do livro no lance legal correspondente (NONE se não houver)
+    private static int toPackedMove(Board board, int bookMove) {
+        int to = Bitboards.square(7 - ((bookMove >>> 3) & 7), bookMove & 7);
+        int from = Bitboards.square(7 - ((bookMove >>> 9) & 7), (bookMove >>> 6) & 7);
+        int promotionType = (bookMove >>> 12) & 7; // 1 cavalo .. 4 dama, como em Bitboards
+
+        // Roque é gravado como o rei capturando a própria torre
+        if (Bitboards.typeOfCode(board.getPieceCodeAt(from)) == Bitboards.KING
+                && board.getPieceCodeAt(to) != Bitboards.NO_PIECE
+                && Bitboards.isWhiteCode(board.getPieceCodeAt(to)) == Bitboards.isWhiteCode(board.getPieceCodeAt(from))) {
+            to = to > from ? from + 2 : from - 2;
+        }
+
+        MoveList legalMoves = new MoveList();
+        MoveGenerator.generateLegal(board, legalMoves);
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int move = legalMoves.get(i);
+            if (PackedMove.from(move) == from && PackedMove.to(move) == to && PackedMove.promotionType(move) == promotionType)
+                return move;
+        }
+        return PackedMove.NONE;
+    }
+}
@@ -0,0 +1,97 @@
+package controller;
+
+import model.board.Board;
+
+/**
+ * Mede o tempo para a busca atingir uma profundidade fixa em um conjunto de
+ * posições de meio-jogo.
+ *
+ * Uso:
+ *   java controller.SearchBenchmark [profundidade] [threads...]
+ *     Lazy SMP com 1, 2, 4, 8 e 16 threads (ou as quantidades informadas)
+ *   java controller.SearchBenchmark forkjoin [profundidade] [threads...]
+ *     busca sequencial contra a busca fork/join (divisão na raiz e Young
+ *     Brothers Wait) com as mesmas quantidades de threads
+ */
+public final class SearchBenchmark {
+
+    private static final String[] POSITIONS = {
+        "r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4",
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+        "2rq1rk1/pp1bppbp/2np1np1/8/3NP3/1BN1BP2/PPPQ2PP/2KR3R b - - 0 11",
+    };
+
+    private static final int[] DEFAULT_THREADS = { 1, 2, 4, 8, 16 };
+
+    private SearchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        boolean forkJoin = args.length > 0 && args[0].equals("forkjoin");
+        int first = forkJoin ? 1 : 0;
+        int depth = args.length > first ? Integer.parseInt(args[first]) : 7;
+        int[] threadCounts = DEFAULT_THREADS;
+        if (args.length > first + 1) {
+            threadCounts = new int[args.length - first - 1];
+            for (int i = first + 1; i < args.length; i++) {
+                threadCounts[i - first - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.println("Profundidade " + depth + ", " + Runtime.getRuntime().availableProcessors()
+                + " processadores disponíveis");
+
+        // Aquecimento do JIT antes das medições
+        new ChessAI(new Game()).findBestMove(Board.fromFen(POSITIONS[0]), Math.min(depth, 5));
+
+        long baseline = 0;
+        if (forkJoin) {
+            baseline = run("sequencial", depth, 1, false, 0);
+        }
+        for (int threads : threadCounts) {
+            long millis = run(forkJoin ? "fork/join" : "lazy smp", depth, threads, forkJoin, baseline);
+            if (baseline == 0)
+                baseline = millis;
+        }
+    }
+
+    // Roda todas as posições e imprime tempo, nós e speedup em relação à base
+    private static long run(String mode, int depth, int threads, boolean forkJoin, long baseline) {
+        long totalMillis = 0;
+        long totalNodes = 0;
+        long evalProbes = 0;
+        long evalHits = 0;
+        long pawnProbes = 0;
+        long pawnHits = 0;
+        for (String fen : POSITIONS) {
+            // IA nova a cada posição: tabela de transposição e históricos vazios
+            ChessAI ai = new ChessAI(new Game());
+            Board board = Board.fromFen(fen);
+            long start = System.nanoTime();
+            if (forkJoin) {
+                ai.findBestMoveParallel(board, depth, threads);
+            } else {
+                ai.setThreads(threads);
+                ai.findBestMove(board, depth);
+            }
+            totalMillis += (System.nanoTime() - start) / 1_000_000;
+            totalNodes += ai.getNodes();
+            evalProbes += ai.getEvalCache().getProbes();
+            evalHits += ai.getEvalCache().getHits();
+            pawnProbes += ai.getPawnHashTable().getProbes();
+            pawnHits += ai.getPawnHashTable().getHits();
+        }
+        totalMillis = Math.max(1, totalMillis);
+        System.out.println(String.format("%-10s threads=%2d  tempo=%6d ms  nós=%10d  nps=%9d  speedup=%.2f"
+                + "  cache aval.=%5.1f%%  hash peões=%5.1f%%",
+                mode, threads, totalMillis, totalNodes, totalNodes * 1000 / totalMillis,
+                baseline == 0 ? 1.0 : (double) baseline / totalMillis,
+                percent(evalHits, evalProbes), percent(pawnHits, pawnProbes)));
+        return totalMillis;
+    }
+
+    private static double percent(long hits, long probes) {
+        return probes == 0 ? 0.0 : 100.0 * hits / probes;
+    }
+}
\ No newline at end of file
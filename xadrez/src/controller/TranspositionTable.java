@@ -0,0 +1,161 @@
+package controller;
+
+import java.util.Arrays;
+
+/**
+ * Tabela de transposição de tamanho fixo, alocada uma única vez em um long[].
+ *
+ * Cada bucket tem duas entradas: a primeira só é substituída por buscas de
+ * profundidade maior ou igual (ou de uma busca anterior) e a segunda é sempre
+ * substituída. Uma entrada ocupa dois longs: a chave XOR os dados e os dados.
+ * Na leitura, a chave só confere se os dois longs foram escritos juntos, de
+ * modo que várias threads podem ler e gravar sem travas: uma escrita
+ * interrompida por outra vira apenas uma falha de consulta.
+ *
+ * Os dados de uma entrada são compactados em um long:
+ * bits 0-18 lance (PackedMove), 19-20 tipo de limite, 21-28 profundidade,
+ * 29-36 geração e 37-56 valor (com sinal).
+ */
+public final class TranspositionTable {
+
+    // Tipos de limite do valor guardado (0 indica entrada vazia)
+    public static final int EXACT = 1;
+    public static final int LOWER = 2; // valor >= guardado (corte beta)
+    public static final int UPPER = 3; // valor <= guardado (não passou de alfa)
+
+    // Valores acima deste limite representam mate e são ajustados pelo ply
+    public static final int MATE_SCORE = 100000;
+    public static final int MATE_BOUND = MATE_SCORE - 1000;
+
+    private static final int ENTRY_LONGS = 2;
+    private static final int BUCKET_LONGS = 2 * ENTRY_LONGS;
+    private static final int BUCKET_BYTES = BUCKET_LONGS * Long.BYTES;
+
+    private static final int MOVE_BITS = 19;
+    private static final int BOUND_SHIFT = 19;
+    private static final int DEPTH_SHIFT = 21;
+    private static final int GENERATION_SHIFT = 29;
+    private static final int SCORE_SHIFT = 37;
+    private static final int SCORE_BITS = 20;
+
+    private final long[] table;
+    private final long bucketMask;
+    private final int sizeMB;
+    private volatile int generation;
+
+    public TranspositionTable(int sizeMB) {
+        if (sizeMB < 1)
+            throw new IllegalArgumentException("Tamanho da tabela deve ser de pelo menos 1 MB");
+
+        // Número de buckets arredondado para baixo até uma potência de dois
+        long buckets = Long.highestOneBit((long) sizeMB * 1024 * 1024 / BUCKET_BYTES);
+        buckets = Math.max(1, Math.min(buckets, 1L << 28));
+        this.table = new long[(int) (buckets * BUCKET_LONGS)];
+        this.bucketMask = buckets - 1;
+        this.sizeMB = sizeMB;
+    }
+
+    public int getSizeMB() {
+        return sizeMB;
+    }
+
+    // Marca o início de uma nova busca; entradas antigas passam a ser substituíveis
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+        generation = 0;
+    }
+
+    // Retorna os dados compactados da entrada da posição, ou 0 se não houver
+    public long probe(long key) {
+        int index = bucketIndex(key);
+        for (int slot = 0; slot < BUCKET_LONGS; slot += ENTRY_LONGS) {
+            long data = table[index + slot + 1];
+            if (data != 0 && (table[index + slot] ^ data) == key)
+                return data;
+        }
+        return 0L;
+    }
+
+    public void store(long key, int depth, int bound, int score, int move) {
+        int index = bucketIndex(key);
+        int currentGeneration = generation;
+        long data = (move & ((1L << MOVE_BITS) - 1))
+                | (long) bound << BOUND_SHIFT
+                | (long) Math.max(0, Math.min(depth, 255)) << DEPTH_SHIFT
+                | (long) currentGeneration << GENERATION_SHIFT
+                | ((long) score & ((1L << SCORE_BITS) - 1)) << SCORE_SHIFT;
+
+        // Entrada preferida por profundidade: mesma posição, busca antiga ou
+        // profundidade não menor; caso contrário vai para a de substituição sempre
+        long deepData = table[index + 1];
+        boolean sameKey = (table[index] ^ deepData) == key;
+        if (deepData == 0 || sameKey || generation(deepData) != currentGeneration || depth >= depth(deepData)) {
+            // Mantém o lance anterior da mesma posição se a nova entrada não tiver um
+            if (sameKey && move == 0)
+                data |= move(deepData);
+            table[index + 1] = data;
+            table[index] = key ^ data;
+        } else {
+            table[index + 3] = data;
+            table[index + 2] = key ^ data;
+        }
+    }
+
+    // Ocupação aproximada em milésimos (amostra dos primeiros buckets)
+    public int hashfull() {
+        int sample = (int) Math.min(1000, bucketMask + 1);
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long data = table[i * BUCKET_LONGS + 1];
+            if (data != 0 && generation(data) == generation)
+                used++;
+        }
+        return used * 1000 / sample;
+    }
+
+    private int bucketIndex(long key) {
+        return (int) (key & bucketMask) * BUCKET_LONGS;
+    }
+
+    public static int move(long data) {
+        return (int) (data & ((1L << MOVE_BITS) - 1));
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 3;
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int score(long data) {
+        // Deslocamento aritmético recupera o sinal dos 20 bits
+        return (int) (data << (64 - SCORE_SHIFT - SCORE_BITS) >> (64 - SCORE_BITS));
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & 0xFF;
+    }
+
+    // Mates são guardados como distância a partir do nó, não da raiz
+    public static int scoreToTable(int score, int ply) {
+        if (score > MATE_BOUND)
+            return score + ply;
+        if (score < -MATE_BOUND)
+            return score - ply;
+        return score;
+    }
+
+    public static int scoreFromTable(int score, int ply) {
+        if (score > MATE_BOUND)
+            return score - ply;
+        if (score < -MATE_BOUND)
+            return score + ply;
+        return score;
+    }
+}
@@ -0,0 +1,105 @@
+package model.board;
+
+import model.pieces.Bishop;
+import model.pieces.King;
+import model.pieces.Knight;
+import model.pieces.Pawn;
+import model.pieces.Piece;
+import model.pieces.Queen;
+
+/**
+ * Constantes e utilitários para a representação em bitboards.
+ *
+ * Cada casa é indexada por square = row * 8 + column, ou seja, o bit 0 é a8
+ * (linha 0 do tabuleiro) e o bit 63 é h1, na mesma orientação de Position.
+ */
+public final class Bitboards {
+
+    // Tipos de peça
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    // Índices de cor
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    // Código de peça (tipo + 6 para as pretas) usado no mailbox
+    public static final int NO_PIECE = -1;
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_8 = 0xFFL; // linha 0
+    public static final long RANK_1 = 0xFFL << 56; // linha 7
+
+    private Bitboards() {
+    }
+
+    public static int square(int row, int column) {
+        return row * 8 + column;
+    }
+
+    public static int rowOf(int square) {
+        return square >>> 3;
+    }
+
+    public static int columnOf(int square) {
+        return square & 7;
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static int colorIndex(boolean white) {
+        return white ? WHITE : BLACK;
+    }
+
+    public static int pieceCode(int type, boolean white) {
+        return white ? type : type + 6;
+    }
+
+    public static int typeOfCode(int code) {
+        return code % 6;
+    }
+
+    public static boolean isWhiteCode(int code) {
+        return code < 6;
+    }
+
+    // Tipo da peça; qualquer outra subclasse é tratada como torre
+    public static int typeOf(Piece piece) {
+        if (piece instanceof Pawn)
+            return PAWN;
+        if (piece instanceof Knight)
+            return KNIGHT;
+        if (piece instanceof Bishop)
+            return BISHOP;
+        if (piece instanceof Queen)
+            return QUEEN;
+        if (piece instanceof King)
+            return KING;
+        return ROOK;
+    }
+
+    public static int codeOf(Piece piece) {
+        return pieceCode(typeOf(piece), piece.isWhite());
+    }
+
+    public static int popCount(long bitboard) {
+        return Long.bitCount(bitboard);
+    }
+
+    // Índice do bit menos significativo (bitboard não pode ser vazio)
+    public static int lsb(long bitboard) {
+        return Long.numberOfTrailingZeros(bitboard);
+    }
+
+    // Remove o bit menos significativo
+    public static long popLsb(long bitboard) {
+        return bitboard & (bitboard - 1);
+    }
+}
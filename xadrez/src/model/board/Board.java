@@ -9,19 +9,142 @@ import model.pieces.Queen;
 import model.pieces.Rook;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class Board {
     private Piece[][] pieces;
     private List<Move> moveHistory;
     private boolean isWhiteTurn;
-    private Position lastPawnDoubleMove;
+
+    // Direitos de roque (bits), casa de en passant (-1 se não houver) e
+    // contador de meios-lances desde a última captura ou lance de peão
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    private int castlingRights;
+    private int enPassantSquare;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+
+    // Representação em bitboards mantida em sincronia com a matriz de peças
+    private final long[] bitboards = new long[12];
+    private final long[] colorOccupancy = new long[2];
+    private long occupancy;
+    private final int[] mailbox = new int[64];
+
+    // Listas de peças por código (tipo + cor): casas ocupadas, quantidade e a
+    // posição de cada casa dentro da sua lista, para remoção em O(1)
+    private static final int MAX_PIECES_PER_CODE = 16;
+    private final int[][] pieceLists = new int[12][MAX_PIECES_PER_CODE];
+    private final int[] pieceListSizes = new int[12];
+    private final int[] pieceListIndex = new int[64];
+
+    // Mapas de casas atacadas por cor; invalidados a cada colocação ou
+    // remoção de peça e recalculados a partir dos bitboards na próxima consulta
+    private final long[] attackMaps = new long[2];
+    private boolean attackMapsValid;
+
+    // Hash de Zobrist da posição, atualizado a cada alteração do tabuleiro,
+    // e hash só dos peões (chave da tabela de estrutura de peões)
+    private long hash;
+    private long pawnHash;
+
+    // Material e tabelas peça-casa (brancas menos pretas) e fase do jogo,
+    // acumulados a cada alteração do tabuleiro como o hash
+    private int midgameScore;
+    private int endgameScore;
+    private int gamePhase;
+
+    // Direitos de roque que permanecem após sair ou chegar em cada casa
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, 15);
+        CASTLING_MASK[60] = ~(WHITE_KINGSIDE | WHITE_QUEENSIDE) & 15; // e1
+        CASTLING_MASK[63] = ~WHITE_KINGSIDE & 15; // h1
+        CASTLING_MASK[56] = ~WHITE_QUEENSIDE & 15; // a1
+        CASTLING_MASK[4] = ~(BLACK_KINGSIDE | BLACK_QUEENSIDE) & 15; // e8
+        CASTLING_MASK[7] = ~BLACK_KINGSIDE & 15; // h8
+        CASTLING_MASK[0] = ~BLACK_QUEENSIDE & 15; // a8
+    }
+
+    // Pilha de desfazer: estado compactado em long + peças capturada e movida
+    private long[] undoStates = new long[256];
+    private Piece[] undoCaptured = new Piece[256];
+    private Piece[] undoMoved = new Piece[256];
+    private int undoCount;
 
     public Board() {
         pieces = new Piece[8][8];
         moveHistory = new ArrayList<>();
         isWhiteTurn = true;
-        lastPawnDoubleMove = null;
+        enPassantSquare = -1;
+        Arrays.fill(mailbox, Bitboards.NO_PIECE);
+    }
+
+    public boolean isWhiteTurn() {
+        return isWhiteTurn;
+    }
+
+    public void setWhiteTurn(boolean isWhiteTurn) {
+        if (this.isWhiteTurn != isWhiteTurn)
+            hash ^= Zobrist.blackToMove();
+        this.isWhiteTurn = isWhiteTurn;
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    // Chave de 64 bits da posição (peças, vez, roque e coluna de en passant)
+    public long getHash() {
+        return hash;
+    }
+
+    // Total de meio-jogo (material + peça-casa) do ponto de vista das brancas
+    public int getMidgameScore() {
+        return midgameScore;
+    }
+
+    // Total de final (material + peça-casa) do ponto de vista das brancas
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    // Fase do jogo pelo material restante (ver PieceSquareTables.MAX_PHASE)
+    public int getGamePhase() {
+        return gamePhase;
+    }
+
+    // Chave de 64 bits formada apenas pelos peões e suas casas
+    public long getPawnHash() {
+        return pawnHash;
+    }
+
+    // Alteram roque e en passant mantendo o hash em dia
+    private void setCastlingRights(int rights) {
+        hash ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights);
+        castlingRights = rights;
+    }
+
+    private void setEnPassantSquare(int square) {
+        hash ^= Zobrist.enPassant(enPassantSquare) ^ Zobrist.enPassant(square);
+        enPassantSquare = square;
     }
 
     // Retorna a peça na posição ou null
@@ -36,27 +159,154 @@ public class Board {
     public void placePiece(Piece piece, Position position) {
         if (position == null || !position.isValid())
             return;
-        pieces[position.getRow()][position.getColumn()] = piece;
+        setSquare(piece, position.getRow(), position.getColumn());
         if (piece != null) {
             piece.setInitialPosition(position);
         }
+        refreshCastlingRights();
     }
     
     // Coloca uma peça na posição (para movimentos durante o jogo)
     public void placePieceMove(Piece piece, Position position) {
         if (position == null || !position.isValid())
             return;
-        pieces[position.getRow()][position.getColumn()] = piece;
+        setSquare(piece, position.getRow(), position.getColumn());
         if (piece != null) {
             piece.setPosition(position);
         }
+        refreshCastlingRights();
     }
 
     // Remove peça da posição
     public void removePiece(Position position) {
         if (position == null || !position.isValid())
             return;
-        pieces[position.getRow()][position.getColumn()] = null;
+        setSquare(null, position.getRow(), position.getColumn());
+        refreshCastlingRights();
+    }
+
+    // Recalcula os direitos de roque a partir de reis e torres que ainda não se moveram
+    private void refreshCastlingRights() {
+        int rights = 0;
+        if (isUnmoved(60, Bitboards.KING, true)) {
+            if (isUnmoved(63, Bitboards.ROOK, true))
+                rights |= WHITE_KINGSIDE;
+            if (isUnmoved(56, Bitboards.ROOK, true))
+                rights |= WHITE_QUEENSIDE;
+        }
+        if (isUnmoved(4, Bitboards.KING, false)) {
+            if (isUnmoved(7, Bitboards.ROOK, false))
+                rights |= BLACK_KINGSIDE;
+            if (isUnmoved(0, Bitboards.ROOK, false))
+                rights |= BLACK_QUEENSIDE;
+        }
+        setCastlingRights(rights);
+    }
+
+    private boolean isUnmoved(int square, int type, boolean white) {
+        return mailbox[square] == Bitboards.pieceCode(type, white) && !getPieceAt(square).hasMoved();
+    }
+
+    // Atualiza a matriz e os bitboards de uma casa
+    private void setSquare(Piece piece, int row, int col) {
+        int square = Bitboards.square(row, col);
+        long bit = Bitboards.bit(square);
+
+        attackMapsValid = false;
+
+        int oldCode = mailbox[square];
+        if (oldCode != Bitboards.NO_PIECE) {
+            int last = pieceLists[oldCode][--pieceListSizes[oldCode]];
+            pieceLists[oldCode][pieceListIndex[square]] = last;
+            pieceListIndex[last] = pieceListIndex[square];
+            bitboards[oldCode] &= ~bit;
+            hash ^= Zobrist.piece(oldCode, square);
+            if (Bitboards.typeOfCode(oldCode) == Bitboards.PAWN)
+                pawnHash ^= Zobrist.piece(oldCode, square);
+            midgameScore -= PieceSquareTables.midgame(oldCode, square);
+            endgameScore -= PieceSquareTables.endgame(oldCode, square);
+            gamePhase -= PieceSquareTables.phaseWeight(oldCode);
+            colorOccupancy[Bitboards.isWhiteCode(oldCode) ? Bitboards.WHITE : Bitboards.BLACK] &= ~bit;
+            occupancy &= ~bit;
+        }
+
+        pieces[row][col] = piece;
+        if (piece == null) {
+            mailbox[square] = Bitboards.NO_PIECE;
+            return;
+        }
+
+        int code = Bitboards.codeOf(piece);
+        mailbox[square] = code;
+        pieceListIndex[square] = pieceListSizes[code];
+        pieceLists[code][pieceListSizes[code]++] = square;
+        bitboards[code] |= bit;
+        hash ^= Zobrist.piece(code, square);
+        if (Bitboards.typeOfCode(code) == Bitboards.PAWN)
+            pawnHash ^= Zobrist.piece(code, square);
+        midgameScore += PieceSquareTables.midgame(code, square);
+        endgameScore += PieceSquareTables.endgame(code, square);
+        gamePhase += PieceSquareTables.phaseWeight(code);
+        colorOccupancy[Bitboards.colorIndex(piece.isWhite())] |= bit;
+        occupancy |= bit;
+    }
+
+    // Bitboard das peças de um tipo e cor (tipos em Bitboards)
+    public long getBitboard(int type, boolean white) {
+        return bitboards[Bitboards.pieceCode(type, white)];
+    }
+
+    // Bitboard de todas as peças de uma cor
+    public long getOccupancy(boolean white) {
+        return colorOccupancy[Bitboards.colorIndex(white)];
+    }
+
+    // Bitboard de todas as casas ocupadas
+    public long getOccupancy() {
+        return occupancy;
+    }
+
+    // Código da peça na casa (Bitboards.NO_PIECE se vazia)
+    public int getPieceCodeAt(int square) {
+        return mailbox[square];
+    }
+
+    // Retorna a peça na casa indexada por square = row * 8 + column
+    public Piece getPieceAt(int square) {
+        return pieces[Bitboards.rowOf(square)][Bitboards.columnOf(square)];
+    }
+
+    // Quantidade de peças de um tipo e cor (tamanho da lista de peças)
+    public int countPieces(int type, boolean white) {
+        return pieceListSizes[Bitboards.pieceCode(type, white)];
+    }
+
+    // Casa da i-ésima peça de um tipo e cor (0 <= index < countPieces(type, white))
+    public int getPieceSquare(int type, boolean white, int index) {
+        return pieceLists[Bitboards.pieceCode(type, white)][index];
+    }
+
+    // Casa do rei da cor informada, ou -1 se não houver rei no tabuleiro
+    public int getKingSquare(boolean white) {
+        int code = Bitboards.pieceCode(Bitboards.KING, white);
+        return pieceListSizes[code] > 0 ? pieceLists[code][0] : -1;
+    }
+
+    // Posição do rei da cor informada, ou null se não houver rei no tabuleiro
+    public Position getKingPosition(boolean white) {
+        int square = getKingSquare(white);
+        return square >= 0 ? Position.of(square) : null;
+    }
+
+    // Verifica se o rei da cor informada está em xeque
+    public boolean isInCheck(boolean white) {
+        int square = getKingSquare(white);
+        return square >= 0 && isSquareAttacked(square, !white);
+    }
+
+    // Quantidade de peças de uma cor
+    public int countPieces(boolean white) {
+        return Bitboards.popCount(getOccupancy(white));
     }
 
     // Verifica se a posição está vazia
@@ -71,34 +321,92 @@ public class Board {
                 pieces[row][col] = null;
             }
         }
+        Arrays.fill(bitboards, 0L);
+        Arrays.fill(colorOccupancy, 0L);
+        occupancy = 0L;
+        Arrays.fill(mailbox, Bitboards.NO_PIECE);
+        Arrays.fill(pieceListSizes, 0);
+        attackMapsValid = false;
+        castlingRights = 0;
+        enPassantSquare = -1;
+        hash = isWhiteTurn ? 0L : Zobrist.blackToMove();
+        pawnHash = 0L;
+        midgameScore = 0;
+        endgameScore = 0;
+        gamePhase = 0;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        undoCount = 0;
     }
 
-    // Verifica se a posição está sob ataque
+    // Verifica se a posição está sob ataque (consulta ao mapa de ataques)
     public boolean isUnderAttack(Position position, boolean byWhite) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = pieces[row][col];
-                if (piece != null && piece.isWhite() == byWhite) {
-                    // Evita recursão infinita durante verificação de roque
-                    if (piece instanceof King) {
-                        // Verifica apenas movimentos básicos do rei (sem roque)
-                        Position kingPos = piece.getPosition();
-                        if (kingPos != null) {
-                            int rowDiff = Math.abs(position.getRow() - kingPos.getRow());
-                            int colDiff = Math.abs(position.getColumn() - kingPos.getColumn());
-                            if (rowDiff <= 1 && colDiff <= 1 && (rowDiff != 0 || colDiff != 0)) {
-                                return true;
-                            }
-                        }
-                    } else {
-                        if (piece.canMoveTo(position)) {
-                            return true;
-                        }
-                    }
-                }
-            }
+        if (position == null || !position.isValid())
+            return false;
+        return (getAttackedSquares(byWhite) & Bitboards.bit(position.getSquare())) != 0;
+    }
+
+    // Todas as casas atacadas pela cor informada
+    public long getAttackedSquares(boolean byWhite) {
+        if (!attackMapsValid) {
+            attackMaps[Bitboards.WHITE] = computeAttacks(true);
+            attackMaps[Bitboards.BLACK] = computeAttacks(false);
+            attackMapsValid = true;
+        }
+        return attackMaps[Bitboards.colorIndex(byWhite)];
+    }
+
+    private long computeAttacks(boolean white) {
+        int side = white ? 0 : 6;
+        long attacks = 0;
+
+        long pieces = bitboards[side + Bitboards.PAWN];
+        while (pieces != 0) {
+            attacks |= Attacks.pawnAttacks(Bitboards.lsb(pieces), white);
+            pieces = Bitboards.popLsb(pieces);
+        }
+        pieces = bitboards[side + Bitboards.KNIGHT];
+        while (pieces != 0) {
+            attacks |= Attacks.knightAttacks(Bitboards.lsb(pieces));
+            pieces = Bitboards.popLsb(pieces);
+        }
+        pieces = bitboards[side + Bitboards.BISHOP] | bitboards[side + Bitboards.QUEEN];
+        while (pieces != 0) {
+            attacks |= Attacks.bishopAttacks(Bitboards.lsb(pieces), occupancy);
+            pieces = Bitboards.popLsb(pieces);
+        }
+        pieces = bitboards[side + Bitboards.ROOK] | bitboards[side + Bitboards.QUEEN];
+        while (pieces != 0) {
+            attacks |= Attacks.rookAttacks(Bitboards.lsb(pieces), occupancy);
+            pieces = Bitboards.popLsb(pieces);
+        }
+        pieces = bitboards[side + Bitboards.KING];
+        if (pieces != 0) {
+            attacks |= Attacks.kingAttacks(Bitboards.lsb(pieces));
         }
-        return false;
+        return attacks;
+    }
+
+    // Verifica se a casa é atacada pela cor informada. Usa o mapa se já
+    // estiver calculado; senão faz a busca reversa nas tabelas de ataque,
+    // mais barata que recalcular o mapa inteiro para uma única consulta
+    public boolean isSquareAttacked(int square, boolean byWhite) {
+        if (attackMapsValid)
+            return (attackMaps[Bitboards.colorIndex(byWhite)] & Bitboards.bit(square)) != 0;
+        return attackersTo(square, byWhite, occupancy) != 0;
+    }
+
+    // Peças da cor informada que atacam a casa, dada uma ocupação
+    public long attackersTo(int square, boolean byWhite, long occupied) {
+        int side = byWhite ? 0 : 6;
+        long rooksQueens = bitboards[side + Bitboards.ROOK] | bitboards[side + Bitboards.QUEEN];
+        long bishopsQueens = bitboards[side + Bitboards.BISHOP] | bitboards[side + Bitboards.QUEEN];
+        // Um peão branco ataca a casa se estiver onde um peão preto dela atacaria (e vice-versa)
+        return (Attacks.pawnAttacks(square, !byWhite) & bitboards[side + Bitboards.PAWN])
+                | (Attacks.knightAttacks(square) & bitboards[side + Bitboards.KNIGHT])
+                | (Attacks.kingAttacks(square) & bitboards[side + Bitboards.KING])
+                | (Attacks.rookAttacks(square, occupied) & rooksQueens)
+                | (Attacks.bishopAttacks(square, occupied) & bishopsQueens);
     }
 
     // Move uma peça de uma posição para outra
@@ -107,66 +415,311 @@ public class Board {
             return false;
         }
 
-        Piece capturedPiece = getPieceAt(destination);
-        Position originalPosition = selectedPiece.getPosition();
+        Move move = new Move(selectedPiece.getPosition(), destination, selectedPiece, getPieceAt(destination));
+        makeMove(move);
+        moveHistory.add(move);
+        return true;
+    }
 
-        removePiece(originalPosition);
-        placePieceMove(selectedPiece, destination);
+    // Executa o lance no próprio tabuleiro (roque, en passant e promoção
+    // incluídos), guardando o necessário para desfazê-lo com unmakeMove
+    public void makeMove(Move move) {
+        makeMove(move.getFrom().getSquare(), move.getTo().getSquare(), move.getPromotionType());
+    }
 
-        Move move = new Move(originalPosition, destination, selectedPiece, capturedPiece);
-        moveHistory.add(move);
+    // Desfaz o último lance executado com makeMove
+    public void unmakeMove(Move move) {
+        unmakeMove(move.getFrom().getSquare(), move.getTo().getSquare());
+    }
 
-        checkSpecialConditions(selectedPiece, destination);
+    // Versões para lances compactados (PackedMove), usadas pela busca
+    public void makeMove(int move) {
+        makeMove(PackedMove.from(move), PackedMove.to(move), PackedMove.promotionType(move));
+    }
+
+    public void unmakeMove(int move) {
+        unmakeMove(PackedMove.from(move), PackedMove.to(move));
+    }
+
+    private void makeMove(int from, int to, int promotionType) {
+        if (undoCount == undoStates.length) {
+            undoStates = Arrays.copyOf(undoStates, undoCount * 2);
+            undoCaptured = Arrays.copyOf(undoCaptured, undoCount * 2);
+            undoMoved = Arrays.copyOf(undoMoved, undoCount * 2);
+        }
+
+        Piece moving = getPieceAt(from);
+        Piece captured = getPieceAt(to);
+        int type = Bitboards.typeOfCode(mailbox[from]);
+        boolean white = moving.isWhite();
+        boolean enPassant = type == Bitboards.PAWN && to == enPassantSquare;
+
+        undoStates[undoCount] = castlingRights
+                | (long) (enPassantSquare + 1) << 4
+                | (long) Math.min(halfmoveClock, 0xFFFF) << 11
+                | (moving.hasMoved() ? 1L << 27 : 0)
+                | (enPassant ? 1L << 28 : 0);
+        undoMoved[undoCount] = moving;
+
+        if (enPassant) {
+            int capturedSquare = to + (white ? 8 : -8);
+            captured = getPieceAt(capturedSquare);
+            setSquare(null, Bitboards.rowOf(capturedSquare), Bitboards.columnOf(capturedSquare));
+        }
+        undoCaptured[undoCount] = captured;
+        undoCount++;
+
+        Piece placed = moving;
+        if (type == Bitboards.PAWN && (Bitboards.rowOf(to) == 0 || Bitboards.rowOf(to) == 7)) {
+            placed = createPiece(promotionType, white);
+        }
+        setSquare(null, Bitboards.rowOf(from), Bitboards.columnOf(from));
+        setSquare(placed, Bitboards.rowOf(to), Bitboards.columnOf(to));
+        placed.setInitialPosition(Position.of(to));
+        placed.setHasMoved(true);
+
+        // Roque: move também a torre
+        if (type == Bitboards.KING && Math.abs(to - from) == 2) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = to > from ? from + 1 : from - 1;
+            Piece rook = getPieceAt(rookFrom);
+            setSquare(null, Bitboards.rowOf(rookFrom), Bitboards.columnOf(rookFrom));
+            setSquare(rook, Bitboards.rowOf(rookTo), Bitboards.columnOf(rookTo));
+            rook.setInitialPosition(Position.of(rookTo));
+            rook.setHasMoved(true);
+        }
 
+        setCastlingRights(castlingRights & CASTLING_MASK[from] & CASTLING_MASK[to]);
+        setEnPassantSquare((type == Bitboards.PAWN && Math.abs(to - from) == 16) ? (from + to) / 2 : -1);
+        halfmoveClock = (type == Bitboards.PAWN || captured != null) ? 0 : halfmoveClock + 1;
+        if (!white)
+            fullmoveNumber++;
         isWhiteTurn = !isWhiteTurn;
+        hash ^= Zobrist.blackToMove();
+    }
 
-        // lastPawnDoubleMove = ... (implementar depois, se necessário)
-        return true;
+    private void unmakeMove(int from, int to) {
+        undoCount--;
+        long state = undoStates[undoCount];
+        Piece moving = undoMoved[undoCount];
+        Piece captured = undoCaptured[undoCount];
+        undoMoved[undoCount] = null;
+        undoCaptured[undoCount] = null;
+
+        isWhiteTurn = !isWhiteTurn;
+        hash ^= Zobrist.blackToMove();
+        if (!moving.isWhite())
+            fullmoveNumber--;
+
+        if (moving instanceof King && Math.abs(to - from) == 2) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = to > from ? from + 1 : from - 1;
+            Piece rook = getPieceAt(rookTo);
+            setSquare(null, Bitboards.rowOf(rookTo), Bitboards.columnOf(rookTo));
+            setSquare(rook, Bitboards.rowOf(rookFrom), Bitboards.columnOf(rookFrom));
+            rook.setInitialPosition(Position.of(rookFrom));
+            rook.setHasMoved(false);
+        }
+
+        setSquare(null, Bitboards.rowOf(to), Bitboards.columnOf(to));
+        setSquare(moving, Bitboards.rowOf(from), Bitboards.columnOf(from));
+        moving.setInitialPosition(Position.of(from));
+        moving.setHasMoved((state & 1L << 27) != 0);
+
+        if (captured != null) {
+            boolean enPassant = (state & 1L << 28) != 0;
+            int capturedSquare = enPassant ? to + (moving.isWhite() ? 8 : -8) : to;
+            setSquare(captured, Bitboards.rowOf(capturedSquare), Bitboards.columnOf(capturedSquare));
+            captured.setInitialPosition(Position.of(capturedSquare));
+        }
+
+        setCastlingRights((int) (state & 15));
+        setEnPassantSquare((int) ((state >>> 4) & 127) - 1);
+        halfmoveClock = (int) ((state >>> 11) & 0xFFFF);
+    }
+
+    // Passa a vez sem mover peça (lance nulo da busca); desfeito com unmakeNullMove
+    public void makeNullMove() {
+        if (undoCount == undoStates.length) {
+            undoStates = Arrays.copyOf(undoStates, undoCount * 2);
+            undoCaptured = Arrays.copyOf(undoCaptured, undoCount * 2);
+            undoMoved = Arrays.copyOf(undoMoved, undoCount * 2);
+        }
+        undoStates[undoCount] = castlingRights
+                | (long) (enPassantSquare + 1) << 4
+                | (long) Math.min(halfmoveClock, 0xFFFF) << 11;
+        undoCount++;
+
+        setEnPassantSquare(-1);
+        halfmoveClock++;
+        isWhiteTurn = !isWhiteTurn;
+        hash ^= Zobrist.blackToMove();
     }
 
-    private void checkSpecialConditions(Piece piece, Position destination) {
-        // implementar roque, promoção e en passant depois
+    public void unmakeNullMove() {
+        undoCount--;
+        long state = undoStates[undoCount];
+        isWhiteTurn = !isWhiteTurn;
+        hash ^= Zobrist.blackToMove();
+        setEnPassantSquare((int) ((state >>> 4) & 127) - 1);
+        halfmoveClock = (int) ((state >>> 11) & 0xFFFF);
     }
 
     public Board clone() {
+        Board clonedBoard = copyPosition();
+        for (Move move : this.moveHistory) {
+            clonedBoard.moveHistory.add(move.clone()); // precisa clone() em Move
+        }
+        return clonedBoard;
+    }
+
+    // Cópia só da posição (peças, vez, roque, en passant e contadores), com o
+    // histórico de lances vazio; é o que as buscas precisam para jogar e desfazer
+    public Board copyPosition() {
         Board clonedBoard = new Board();
-        clonedBoard.isWhiteTurn = this.isWhiteTurn;
-        clonedBoard.lastPawnDoubleMove = (this.lastPawnDoubleMove != null)
-                ? new Position(this.lastPawnDoubleMove.getRow(), this.lastPawnDoubleMove.getColumn())
-                : null;
+        clonedBoard.setWhiteTurn(this.isWhiteTurn);
 
         for (int row = 0; row < 8; row++) {
             for (int col = 0; col < 8; col++) {
                 Piece piece = this.pieces[row][col];
                 if (piece != null) {
-                    Piece clonedPiece = clonePiece(piece, clonedBoard);
-                    clonedBoard.placePiece(clonedPiece, new Position(row, col));
+                    Piece clonedPiece = createPiece(Bitboards.typeOf(piece), piece.isWhite(), clonedBoard);
+                    clonedBoard.placePiece(clonedPiece, Position.of(row, col));
+                    clonedPiece.setHasMoved(piece.hasMoved());
                 }
             }
         }
+        clonedBoard.setCastlingRights(this.castlingRights);
+        clonedBoard.setEnPassantSquare(this.enPassantSquare);
+        clonedBoard.halfmoveClock = this.halfmoveClock;
+        clonedBoard.fullmoveNumber = this.fullmoveNumber;
+        return clonedBoard;
+    }
 
-        clonedBoard.moveHistory = new ArrayList<>();
-        for (Move move : this.moveHistory) {
-            clonedBoard.moveHistory.add(move.clone()); // precisa clone() em Move
+    // Cria um tabuleiro a partir de uma posição em notação FEN
+    public static Board fromFen(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4)
+            throw new IllegalArgumentException("FEN inválida: " + fen);
+
+        Board board = new Board();
+        int row = 0;
+        int col = 0;
+        for (char c : fields[0].toCharArray()) {
+            if (c == '/') {
+                row++;
+                col = 0;
+            } else if (Character.isDigit(c)) {
+                col += c - '0';
+            } else {
+                int type = "pnbrqk".indexOf(Character.toLowerCase(c));
+                if (type < 0 || row > 7 || col > 7)
+                    throw new IllegalArgumentException("FEN inválida: " + fen);
+                Piece piece = createPiece(type, Character.isUpperCase(c), board);
+                board.setSquare(piece, row, col);
+                piece.setInitialPosition(Position.of(row, col));
+                // Peões fora da linha inicial e demais peças contam como já movidas;
+                // reis e torres com direito de roque são liberados abaixo
+                boolean onPawnStart = type == Bitboards.PAWN && row == (piece.isWhite() ? 6 : 1);
+                piece.setHasMoved(!onPawnStart);
+                col++;
+            }
         }
 
-        return clonedBoard;
+        board.setWhiteTurn(fields[1].equals("w"));
+
+        int rights = 0;
+        if (fields[2].indexOf('K') >= 0)
+            rights |= WHITE_KINGSIDE;
+        if (fields[2].indexOf('Q') >= 0)
+            rights |= WHITE_QUEENSIDE;
+        if (fields[2].indexOf('k') >= 0)
+            rights |= BLACK_KINGSIDE;
+        if (fields[2].indexOf('q') >= 0)
+            rights |= BLACK_QUEENSIDE;
+        int[][] castlingPieces = { { WHITE_KINGSIDE, 60, 63 }, { WHITE_QUEENSIDE, 60, 56 },
+                { BLACK_KINGSIDE, 4, 7 }, { BLACK_QUEENSIDE, 4, 0 } };
+        for (int[] entry : castlingPieces) {
+            if ((rights & entry[0]) != 0 && board.getPieceAt(entry[1]) != null && board.getPieceAt(entry[2]) != null) {
+                board.getPieceAt(entry[1]).setHasMoved(false);
+                board.getPieceAt(entry[2]).setHasMoved(false);
+            } else {
+                rights &= ~entry[0];
+            }
+        }
+        board.setCastlingRights(rights);
+
+        if (!fields[3].equals("-")) {
+            board.setEnPassantSquare(Bitboards.square(8 - (fields[3].charAt(1) - '0'), fields[3].charAt(0) - 'a'));
+        }
+        if (fields.length > 4)
+            board.halfmoveClock = Integer.parseInt(fields[4]);
+        if (fields.length > 5)
+            board.fullmoveNumber = Integer.parseInt(fields[5]);
+        return board;
+    }
+
+    // Posição atual em notação FEN
+    public String toFen() {
+        StringBuilder fen = new StringBuilder();
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                int code = mailbox[Bitboards.square(row, col)];
+                if (code == Bitboards.NO_PIECE) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                char c = "pnbrqk".charAt(Bitboards.typeOfCode(code));
+                fen.append(Bitboards.isWhiteCode(code) ? Character.toUpperCase(c) : c);
+            }
+            if (empty > 0)
+                fen.append(empty);
+            if (row < 7)
+                fen.append('/');
+        }
+
+        fen.append(isWhiteTurn ? " w " : " b ");
+        if (castlingRights == 0) {
+            fen.append('-');
+        } else {
+            if ((castlingRights & WHITE_KINGSIDE) != 0)
+                fen.append('K');
+            if ((castlingRights & WHITE_QUEENSIDE) != 0)
+                fen.append('Q');
+            if ((castlingRights & BLACK_KINGSIDE) != 0)
+                fen.append('k');
+            if ((castlingRights & BLACK_QUEENSIDE) != 0)
+                fen.append('q');
+        }
+        fen.append(' ').append(enPassantSquare >= 0 ? PackedMove.squareName(enPassantSquare) : "-");
+        fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return fen.toString();
     }
 
-    private Piece clonePiece(Piece piece, Board clonedBoard) {
-        if (piece instanceof King)
-            return new King(clonedBoard, piece.isWhite());
-        if (piece instanceof Queen)
-            return new Queen(clonedBoard, piece.isWhite());
-        if (piece instanceof Rook)
-            return new Rook(clonedBoard, piece.isWhite());
-        if (piece instanceof Bishop)
-            return new Bishop(clonedBoard, piece.isWhite());
-        if (piece instanceof Knight)
-            return new Knight(clonedBoard, piece.isWhite());
-        if (piece instanceof Pawn)
-            return new Pawn(clonedBoard, piece.isWhite());
-        return null;
+    private Piece createPiece(int type, boolean white) {
+        return createPiece(type, white, this);
+    }
+
+    private static Piece createPiece(int type, boolean white, Board board) {
+        switch (type) {
+            case Bitboards.PAWN:
+                return new Pawn(board, white);
+            case Bitboards.KNIGHT:
+                return new Knight(board, white);
+            case Bitboards.BISHOP:
+                return new Bishop(board, white);
+            case Bitboards.ROOK:
+                return new Rook(board, white);
+            case Bitboards.KING:
+                return new King(board, white);
+            default:
+                return new Queen(board, white);
+        }
     }
 
 }
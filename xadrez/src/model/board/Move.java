@@ -10,6 +10,7 @@ public class Move implements Cloneable {
     private boolean isPromotion;
     private boolean isCastling;
     private boolean isEnPassant;
+    private int promotionType = Bitboards.QUEEN;
 
     public Move(Position from, Position to, Piece piece, Piece capturedPiece) {
         this.from = from;
@@ -42,6 +43,15 @@ public class Move implements Cloneable {
         isPromotion = promotion;
     }
 
+    // Tipo da peça escolhida na promoção (Bitboards.QUEEN por padrão)
+    public int getPromotionType() {
+        return promotionType;
+    }
+
+    public void setPromotionType(int promotionType) {
+        this.promotionType = promotionType;
+    }
+
     public boolean isCastling() {
         return isCastling;
     }
@@ -65,17 +75,15 @@ public class Move implements Cloneable {
 
     @Override
     public Move clone() {
-        // Cria novas posições para evitar problemas de referência
-        Position clonedFrom = new Position(from.getRow(), from.getColumn());
-        Position clonedTo = new Position(to.getRow(), to.getColumn());
-        
+        // Posições são imutáveis e canônicas, podem ser compartilhadas.
         // Nota: as peças são mantidas como referências porque elas serão clonadas
         // pelo Board.clone() quando necessário
-        Move cloned = new Move(clonedFrom, clonedTo, piece, capturedPiece);
+        Move cloned = new Move(from, to, piece, capturedPiece);
         
         cloned.setPromotion(isPromotion);
         cloned.setCastling(isCastling);
         cloned.setEnPassant(isEnPassant);
+        cloned.setPromotionType(promotionType);
         return cloned;
     }
 
@@ -0,0 +1,397 @@
+package model.board;
+
+/**
+ * Gerador de lances baseado em bitboards. Escreve lances compactados
+ * (PackedMove) em uma MoveList fornecida pelo chamador, sem alocar memória.
+ *
+ * generate() produz lances pseudo-legais; generateLegal() calcula uma vez
+ * por posição as peças que dão xeque e as peças cravadas e produz apenas
+ * lances legais para o lado que tem a vez.
+ *
+ * Para a geração em etapas da busca, generateCaptures() e generateQuiets()
+ * dividem os lances pseudo-legais em táticos (capturas e promoções) e
+ * quietos; isPseudoLegal() valida lances vindos de fora do gerador (tabela
+ * de transposição, killers) e isLegal() confere um lance de cada vez.
+ */
+public final class MoveGenerator {
+
+    private MoveGenerator() {
+    }
+
+    // Gera os lances pseudo-legais (podem deixar o próprio rei em xeque) da cor informada
+    public static void generate(Board board, boolean white, MoveList list) {
+        list.clear();
+        addPseudoLegal(board, white, true, true, list);
+    }
+
+    // Gera só capturas e promoções pseudo-legais
+    public static void generateCaptures(Board board, boolean white, MoveList list) {
+        list.clear();
+        addPseudoLegal(board, white, true, false, list);
+    }
+
+    // Gera só os lances pseudo-legais que não capturam nem promovem (inclui roques)
+    public static void generateQuiets(Board board, boolean white, MoveList list) {
+        list.clear();
+        addPseudoLegal(board, white, false, true, list);
+    }
+
+    private static void addPseudoLegal(Board board, boolean white, boolean tactical, boolean quiet, MoveList list) {
+        long enemy = board.getOccupancy(!white);
+        long occupied = board.getOccupancy();
+        long targets = (tactical ? enemy : 0L) | (quiet ? ~occupied : 0L);
+
+        generatePawnMoves(board, white, enemy, occupied, tactical, quiet, list);
+
+        long knights = board.getBitboard(Bitboards.KNIGHT, white);
+        while (knights != 0) {
+            int from = Bitboards.lsb(knights);
+            addMoves(from, Attacks.knightAttacks(from) & targets, enemy, list);
+            knights = Bitboards.popLsb(knights);
+        }
+
+        long bishops = board.getBitboard(Bitboards.BISHOP, white);
+        while (bishops != 0) {
+            int from = Bitboards.lsb(bishops);
+            addMoves(from, Attacks.bishopAttacks(from, occupied) & targets, enemy, list);
+            bishops = Bitboards.popLsb(bishops);
+        }
+
+        long rooks = board.getBitboard(Bitboards.ROOK, white);
+        while (rooks != 0) {
+            int from = Bitboards.lsb(rooks);
+            addMoves(from, Attacks.rookAttacks(from, occupied) & targets, enemy, list);
+            rooks = Bitboards.popLsb(rooks);
+        }
+
+        long queens = board.getBitboard(Bitboards.QUEEN, white);
+        while (queens != 0) {
+            int from = Bitboards.lsb(queens);
+            addMoves(from, Attacks.queenAttacks(from, occupied) & targets, enemy, list);
+            queens = Bitboards.popLsb(queens);
+        }
+
+        long king = board.getBitboard(Bitboards.KING, white);
+        if (king != 0) {
+            int from = Bitboards.lsb(king);
+            addMoves(from, Attacks.kingAttacks(from) & targets, enemy, list);
+            if (quiet)
+                generateCastling(board, white, from, occupied, list);
+        }
+    }
+
+    // Verifica se um lance compactado é pseudo-legal para o lado que tem a vez,
+    // com as mesmas marcações que o gerador usaria
+    public static boolean isPseudoLegal(Board board, int move) {
+        if (move == PackedMove.NONE)
+            return false;
+
+        boolean white = board.isWhiteTurn();
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int code = board.getPieceCodeAt(from);
+        if (code == Bitboards.NO_PIECE || Bitboards.isWhiteCode(code) != white)
+            return false;
+
+        long enemy = board.getOccupancy(!white);
+        long occupied = board.getOccupancy();
+        long toBit = Bitboards.bit(to);
+        if ((board.getOccupancy(white) & toBit) != 0)
+            return false;
+
+        int type = Bitboards.typeOfCode(code);
+        if (PackedMove.isCastling(move))
+            return type == Bitboards.KING && (castlingTargets(board, white, from, occupied) & toBit) != 0;
+        if (type == Bitboards.PAWN)
+            return isPseudoLegalPawnMove(board, white, move, from, to, enemy, occupied);
+
+        // Demais peças: sem marcações de peão e captura só se houver peça inimiga no destino
+        if (PackedMove.isPromotion(move) || PackedMove.isDoublePush(move) || PackedMove.isEnPassant(move))
+            return false;
+        if (PackedMove.isCapture(move) != ((enemy & toBit) != 0))
+            return false;
+        long attacks = type == Bitboards.KING ? Attacks.kingAttacks(from) : pieceAttacks(type, from, occupied);
+        return (attacks & toBit) != 0;
+    }
+
+    private static boolean isPseudoLegalPawnMove(Board board, boolean white, int move, int from, int to,
+            long enemy, long occupied) {
+        int push = white ? -8 : 8;
+        int startRow = white ? 6 : 1;
+        int promotionRow = white ? 0 : 7;
+        long attacks = Attacks.pawnAttacks(from, white);
+
+        if (PackedMove.isPromotion(move) != (Bitboards.rowOf(to) == promotionRow))
+            return false;
+        if (PackedMove.isEnPassant(move))
+            return to == board.getEnPassantSquare() && (attacks & Bitboards.bit(to)) != 0;
+        if (PackedMove.isCapture(move))
+            return (attacks & enemy & Bitboards.bit(to)) != 0;
+        if (PackedMove.isDoublePush(move))
+            return Bitboards.rowOf(from) == startRow && to == from + 2 * push
+                    && (occupied & (Bitboards.bit(from + push) | Bitboards.bit(to))) == 0;
+        return to == from + push && (occupied & Bitboards.bit(to)) == 0;
+    }
+
+    // Verifica se um lance pseudo-legal do lado que tem a vez não deixa o próprio rei em xeque
+    public static boolean isLegal(Board board, int move) {
+        boolean white = board.isWhiteTurn();
+        int king = board.getKingSquare(white);
+        // Roque já é gerado só com o caminho do rei livre de ataques
+        if (king < 0 || PackedMove.isCastling(move))
+            return true;
+
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        long occupied = board.getOccupancy();
+        if (from == king)
+            return board.attackersTo(to, !white, occupied & ~Bitboards.bit(king)) == 0;
+        if (PackedMove.isEnPassant(move))
+            return isLegalEnPassant(board, white, king, from, to, occupied);
+
+        // A peça capturada no destino deixa de atacar o rei
+        long after = (occupied & ~Bitboards.bit(from)) | Bitboards.bit(to);
+        return (board.attackersTo(king, !white, after) & ~Bitboards.bit(to)) == 0;
+    }
+
+    // Gera apenas os lances legais do lado que tem a vez
+    public static void generateLegal(Board board, MoveList list) {
+        list.clear();
+        boolean white = board.isWhiteTurn();
+        int king = board.getKingSquare(white);
+        if (king < 0) {
+            generate(board, white, list);
+            return;
+        }
+
+        long own = board.getOccupancy(white);
+        long enemy = board.getOccupancy(!white);
+        long occupied = board.getOccupancy();
+        long checkers = board.attackersTo(king, !white, occupied);
+
+        // Rei: a casa de destino não pode ser atacada com o rei já fora da origem
+        long kingTargets = Attacks.kingAttacks(king) & ~own;
+        long withoutKing = occupied & ~Bitboards.bit(king);
+        while (kingTargets != 0) {
+            int to = Bitboards.lsb(kingTargets);
+            kingTargets = Bitboards.popLsb(kingTargets);
+            if (board.attackersTo(to, !white, withoutKing) == 0) {
+                int flags = (enemy & Bitboards.bit(to)) != 0 ? PackedMove.FLAG_CAPTURE : 0;
+                list.add(PackedMove.encode(king, to, 0, flags));
+            }
+        }
+
+        // Xeque duplo: só o rei pode se mover
+        if (Bitboards.popCount(checkers) > 1)
+            return;
+
+        // Em xeque simples, os destinos se limitam a capturar ou bloquear a peça que dá xeque
+        long targetMask = ~own;
+        if (checkers != 0) {
+            int checker = Bitboards.lsb(checkers);
+            targetMask = checkers | Attacks.between(king, checker);
+        } else {
+            generateCastling(board, white, king, occupied, list);
+        }
+
+        long pinned = pinnedPieces(board, white, king, own, enemy, occupied);
+
+        generateLegalPawnMoves(board, white, king, enemy, occupied, targetMask, pinned, list);
+
+        for (int type = Bitboards.KNIGHT; type <= Bitboards.QUEEN; type++) {
+            long pieces = board.getBitboard(type, white);
+            // Cavalo cravado nunca pode se mover
+            if (type == Bitboards.KNIGHT)
+                pieces &= ~pinned;
+            while (pieces != 0) {
+                int from = Bitboards.lsb(pieces);
+                pieces = Bitboards.popLsb(pieces);
+                long targets = pieceAttacks(type, from, occupied) & targetMask;
+                if ((pinned & Bitboards.bit(from)) != 0)
+                    targets &= Attacks.line(king, from);
+                addMoves(from, targets, enemy, list);
+            }
+        }
+    }
+
+    // Peças próprias que são a única peça entre o rei e uma peça deslizante inimiga
+    private static long pinnedPieces(Board board, boolean white, int king, long own, long enemy, long occupied) {
+        long enemyRooks = board.getBitboard(Bitboards.ROOK, !white) | board.getBitboard(Bitboards.QUEEN, !white);
+        long enemyBishops = board.getBitboard(Bitboards.BISHOP, !white) | board.getBitboard(Bitboards.QUEEN, !white);
+        // Ataques a partir do rei atravessando as peças próprias
+        long snipers = (Attacks.rookAttacks(king, enemy) & enemyRooks)
+                | (Attacks.bishopAttacks(king, enemy) & enemyBishops);
+
+        long pinned = 0;
+        while (snipers != 0) {
+            int sniper = Bitboards.lsb(snipers);
+            snipers = Bitboards.popLsb(snipers);
+            long blockers = Attacks.between(king, sniper) & occupied;
+            if (Bitboards.popCount(blockers) == 1 && (blockers & own) != 0)
+                pinned |= blockers;
+        }
+        return pinned;
+    }
+
+    private static long pieceAttacks(int type, int from, long occupied) {
+        switch (type) {
+            case Bitboards.KNIGHT:
+                return Attacks.knightAttacks(from);
+            case Bitboards.BISHOP:
+                return Attacks.bishopAttacks(from, occupied);
+            case Bitboards.ROOK:
+                return Attacks.rookAttacks(from, occupied);
+            default:
+                return Attacks.queenAttacks(from, occupied);
+        }
+    }
+
+    private static void generateLegalPawnMoves(Board board, boolean white, int king, long enemy, long occupied,
+            long targetMask, long pinned, MoveList list) {
+        int push = white ? -8 : 8;
+        int startRow = white ? 6 : 1;
+        int promotionRow = white ? 0 : 7;
+        int enPassant = board.getEnPassantSquare();
+
+        long pawns = board.getBitboard(Bitboards.PAWN, white);
+        while (pawns != 0) {
+            int from = Bitboards.lsb(pawns);
+            pawns = Bitboards.popLsb(pawns);
+            long allowed = targetMask;
+            if ((pinned & Bitboards.bit(from)) != 0)
+                allowed &= Attacks.line(king, from);
+
+            int to = from + push;
+            if ((occupied & Bitboards.bit(to)) == 0) {
+                if ((allowed & Bitboards.bit(to)) != 0) {
+                    if (Bitboards.rowOf(to) == promotionRow)
+                        addPromotions(from, to, 0, list);
+                    else
+                        list.add(PackedMove.encode(from, to, 0, 0));
+                }
+                int doubleTo = to + push;
+                if (Bitboards.rowOf(from) == startRow && (occupied & Bitboards.bit(doubleTo)) == 0
+                        && (allowed & Bitboards.bit(doubleTo)) != 0)
+                    list.add(PackedMove.encode(from, doubleTo, 0, PackedMove.FLAG_DOUBLE_PUSH));
+            }
+
+            long attacks = Attacks.pawnAttacks(from, white);
+            long captures = attacks & enemy & allowed;
+            while (captures != 0) {
+                int target = Bitboards.lsb(captures);
+                captures = Bitboards.popLsb(captures);
+                if (Bitboards.rowOf(target) == promotionRow)
+                    addPromotions(from, target, PackedMove.FLAG_CAPTURE, list);
+                else
+                    list.add(PackedMove.encode(from, target, 0, PackedMove.FLAG_CAPTURE));
+            }
+
+            if (enPassant >= 0 && (attacks & Bitboards.bit(enPassant)) != 0
+                    && isLegalEnPassant(board, white, king, from, enPassant, occupied)) {
+                list.add(PackedMove.encode(from, enPassant, 0, PackedMove.FLAG_CAPTURE | PackedMove.FLAG_EN_PASSANT));
+            }
+        }
+    }
+
+    // En passant remove duas peças da mesma linha: verifica o rei com a ocupação resultante
+    // (cobre xeque descoberto horizontal, cravadas e xeque dado pelo próprio peão capturado)
+    private static boolean isLegalEnPassant(Board board, boolean white, int king, int from, int to, long occupied) {
+        int captured = to + (white ? 8 : -8);
+        long after = (occupied & ~Bitboards.bit(from) & ~Bitboards.bit(captured)) | Bitboards.bit(to);
+        return (board.attackersTo(king, !white, after) & ~Bitboards.bit(captured)) == 0;
+    }
+
+    private static void generatePawnMoves(Board board, boolean white, long enemy, long occupied,
+            boolean tactical, boolean quiet, MoveList list) {
+        int push = white ? -8 : 8;
+        int startRow = white ? 6 : 1;
+        int promotionRow = white ? 0 : 7;
+        int enPassant = white == board.isWhiteTurn() ? board.getEnPassantSquare() : -1;
+
+        long pawns = board.getBitboard(Bitboards.PAWN, white);
+        while (pawns != 0) {
+            int from = Bitboards.lsb(pawns);
+            pawns = Bitboards.popLsb(pawns);
+
+            // Promoções sem captura contam como lances táticos
+            int to = from + push;
+            if ((occupied & Bitboards.bit(to)) == 0) {
+                if (Bitboards.rowOf(to) == promotionRow) {
+                    if (tactical)
+                        addPromotions(from, to, 0, list);
+                } else if (quiet) {
+                    list.add(PackedMove.encode(from, to, 0, 0));
+                    int doubleTo = to + push;
+                    if (Bitboards.rowOf(from) == startRow && (occupied & Bitboards.bit(doubleTo)) == 0)
+                        list.add(PackedMove.encode(from, doubleTo, 0, PackedMove.FLAG_DOUBLE_PUSH));
+                }
+            }
+            if (!tactical)
+                continue;
+
+            long attacks = Attacks.pawnAttacks(from, white);
+            long captures = attacks & enemy;
+            while (captures != 0) {
+                int target = Bitboards.lsb(captures);
+                captures = Bitboards.popLsb(captures);
+                if (Bitboards.rowOf(target) == promotionRow)
+                    addPromotions(from, target, PackedMove.FLAG_CAPTURE, list);
+                else
+                    list.add(PackedMove.encode(from, target, 0, PackedMove.FLAG_CAPTURE));
+            }
+
+            if (enPassant >= 0 && (attacks & Bitboards.bit(enPassant)) != 0)
+                list.add(PackedMove.encode(from, enPassant, 0, PackedMove.FLAG_CAPTURE | PackedMove.FLAG_EN_PASSANT));
+        }
+    }
+
+    private static void addPromotions(int from, int to, int flags, MoveList list) {
+        list.add(PackedMove.encode(from, to, Bitboards.QUEEN, flags));
+        list.add(PackedMove.encode(from, to, Bitboards.ROOK, flags));
+        list.add(PackedMove.encode(from, to, Bitboards.BISHOP, flags));
+        list.add(PackedMove.encode(from, to, Bitboards.KNIGHT, flags));
+    }
+
+    private static void addMoves(int from, long targets, long enemy, MoveList list) {
+        while (targets != 0) {
+            int to = Bitboards.lsb(targets);
+            targets = Bitboards.popLsb(targets);
+            int flags = (enemy & Bitboards.bit(to)) != 0 ? PackedMove.FLAG_CAPTURE : 0;
+            list.add(PackedMove.encode(from, to, 0, flags));
+        }
+    }
+
+    // Roque: casas entre rei e torre vazias e rei sem passar por casas atacadas
+    private static void generateCastling(Board board, boolean white, int from, long occupied, MoveList list) {
+        long targets = castlingTargets(board, white, from, occupied);
+        if ((targets & Bitboards.bit(from + 2)) != 0)
+            list.add(PackedMove.encode(from, from + 2, 0, PackedMove.FLAG_CASTLING));
+        if ((targets & Bitboards.bit(from - 2)) != 0)
+            list.add(PackedMove.encode(from, from - 2, 0, PackedMove.FLAG_CASTLING));
+    }
+
+    // Casas de destino do rei nos roques possíveis a partir da casa do rei
+    private static long castlingTargets(Board board, boolean white, int from, long occupied) {
+        int rights = board.getCastlingRights();
+        int kingSide = white ? Board.WHITE_KINGSIDE : Board.BLACK_KINGSIDE;
+        int queenSide = white ? Board.WHITE_QUEENSIDE : Board.BLACK_QUEENSIDE;
+        boolean kingSideFree = (rights & kingSide) != 0
+                && (occupied & (Bitboards.bit(from + 1) | Bitboards.bit(from + 2))) == 0;
+        boolean queenSideFree = (rights & queenSide) != 0
+                && (occupied & (Bitboards.bit(from - 1) | Bitboards.bit(from - 2) | Bitboards.bit(from - 3))) == 0;
+        if (!kingSideFree && !queenSideFree)
+            return 0L;
+
+        // Um único mapa de ataques responde às consultas de ambos os roques
+        long attacked = board.getAttackedSquares(!white);
+        if ((attacked & Bitboards.bit(from)) != 0)
+            return 0L;
+
+        long targets = 0L;
+        if (kingSideFree && (attacked & (Bitboards.bit(from + 1) | Bitboards.bit(from + 2))) == 0)
+            targets |= Bitboards.bit(from + 2);
+        if (queenSideFree && (attacked & (Bitboards.bit(from - 1) | Bitboards.bit(from - 2))) == 0)
+            targets |= Bitboards.bit(from - 2);
+        return targets;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package model.board;
+
+/**
+ * Lista de lances compactados com pontuação para ordenação.
+ * A busca mantém uma instância por ply e a reutiliza entre os nós.
+ */
+public final class MoveList {
+
+    public static final int MAX_MOVES = 256;
+
+    private final int[] moves = new int[MAX_MOVES];
+    private final int[] scores = new int[MAX_MOVES];
+    private int size;
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public int getScore(int index) {
+        return scores[index];
+    }
+
+    public void setScore(int index, int score) {
+        scores[index] = score;
+    }
+
+    // Remove o lance do índice trocando-o com o último
+    public void removeAt(int index) {
+        size--;
+        moves[index] = moves[size];
+        scores[index] = scores[size];
+    }
+
+    // Leva o lance ao início da lista, preservando a ordem dos demais
+    public void moveToFront(int move) {
+        for (int i = 1; i < size; i++) {
+            if (moves[i] == move) {
+                int score = scores[i];
+                System.arraycopy(moves, 0, moves, 1, i);
+                System.arraycopy(scores, 0, scores, 1, i);
+                moves[0] = move;
+                scores[0] = score;
+                return;
+            }
+        }
+    }
+
+    // Traz para o índice o lance de maior pontuação entre os restantes (seleção parcial)
+    public int pickBest(int index) {
+        int best = index;
+        for (int i = index + 1; i < size; i++) {
+            if (scores[i] > scores[best])
+                best = i;
+        }
+        if (best != index) {
+            int move = moves[best];
+            moves[best] = moves[index];
+            moves[index] = move;
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return moves[index];
+    }
+}
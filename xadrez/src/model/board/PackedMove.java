@@ -0,0 +1,91 @@
+package model.board;
+
+/**
+ * Codificação de lances em um int de 32 bits, usada pela busca da IA para
+ * não alocar objetos Move.
+ *
+ * bits 0-5: casa de origem, bits 6-11: casa de destino,
+ * bits 12-14: tipo da peça de promoção (0 = sem promoção),
+ * bits 15-18: flags (captura, avanço duplo, en passant, roque).
+ * O valor 0 representa "nenhum lance".
+ */
+public final class PackedMove {
+
+    public static final int NONE = 0;
+
+    public static final int FLAG_CAPTURE = 1 << 15;
+    public static final int FLAG_DOUBLE_PUSH = 1 << 16;
+    public static final int FLAG_EN_PASSANT = 1 << 17;
+    public static final int FLAG_CASTLING = 1 << 18;
+
+    private PackedMove() {
+    }
+
+    public static int encode(int from, int to, int promotionType, int flags) {
+        return from | (to << 6) | (promotionType << 12) | flags;
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    // Tipo da peça de promoção (Bitboards.KNIGHT..QUEEN) ou 0
+    public static int promotionType(int move) {
+        return (move >>> 12) & 7;
+    }
+
+    public static boolean isPromotion(int move) {
+        return promotionType(move) != 0;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & FLAG_CAPTURE) != 0;
+    }
+
+    public static boolean isDoublePush(int move) {
+        return (move & FLAG_DOUBLE_PUSH) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & FLAG_EN_PASSANT) != 0;
+    }
+
+    public static boolean isCastling(int move) {
+        return (move & FLAG_CASTLING) != 0;
+    }
+
+    // Lances "táticos" (capturas e promoções)
+    public static boolean isTactical(int move) {
+        return (move & FLAG_CAPTURE) != 0 || promotionType(move) != 0;
+    }
+
+    // Cria o Move equivalente, com as peças do tabuleiro informado (fronteira com Game/GUI)
+    public static Move toMove(int move, Board board) {
+        Position from = Position.of(from(move));
+        Position to = Position.of(to(move));
+        Move result = new Move(from, to, board.getPieceAt(from), board.getPieceAt(to));
+        result.setCastling(isCastling(move));
+        result.setEnPassant(isEnPassant(move));
+        if (isPromotion(move)) {
+            result.setPromotion(true);
+            result.setPromotionType(promotionType(move));
+        }
+        return result;
+    }
+
+    // Notação de coordenadas, ex.: e2e4, e7e8q
+    public static String toString(int move) {
+        String text = squareName(from(move)) + squareName(to(move));
+        if (isPromotion(move))
+            text += "pnbrqk".charAt(promotionType(move));
+        return text;
+    }
+
+    public static String squareName(int square) {
+        return (char) ('a' + Bitboards.columnOf(square)) + "" + (8 - Bitboards.rowOf(square));
+    }
+}
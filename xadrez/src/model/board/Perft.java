@@ -0,0 +1,216 @@
+package model.board;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Ferramenta de linha de comando para medir e validar o gerador de lances.
+ *
+ * Uso:
+ *   java model.board.Perft suite [profundidadeMáxima] [threads]
+ *   java model.board.Perft perft profundidade [threads] [FEN]
+ *   java model.board.Perft divide profundidade [FEN]
+ *
+ * O modo "suite" roda as posições de referência em resources/perft/standard.epd
+ * e compara as contagens de nós com as esperadas.
+ */
+public final class Perft {
+
+    private static final String SUITE_RESOURCE = "/resources/perft/standard.epd";
+    private static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private final MoveList[] moveLists;
+
+    public Perft(int maxDepth) {
+        moveLists = new MoveList[Math.max(1, maxDepth)];
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    // Conta as folhas da árvore de lances legais até a profundidade informada
+    public long perft(Board board, int depth) {
+        return perft(board, depth, 0);
+    }
+
+    private long perft(Board board, int depth, int ply) {
+        if (depth == 0)
+            return 1;
+
+        MoveList moves = moveLists[ply];
+        MoveGenerator.generateLegal(board, moves);
+        // Contagem direta no último nível
+        if (depth == 1)
+            return moves.size();
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            nodes += perft(board, depth - 1, ply + 1);
+            board.unmakeMove(move);
+        }
+        return nodes;
+    }
+
+    // Contagem por lance da raiz, útil para localizar diferenças
+    public long divide(Board board, int depth) {
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegal(board, moves);
+        long total = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            long nodes = depth > 1 ? perft(board, depth - 1, 0) : 1;
+            board.unmakeMove(move);
+            System.out.println(PackedMove.toString(move) + ": " + nodes);
+            total += nodes;
+        }
+        System.out.println("Lances: " + moves.size() + "  Nós: " + total);
+        return total;
+    }
+
+    // Divide os lances da raiz entre threads; cada tarefa trabalha em sua própria cópia do tabuleiro
+    public static long parallelPerft(Board board, int depth, int threads) {
+        if (threads <= 1 || depth < 2)
+            return new Perft(depth).perft(board, depth);
+
+        MoveList rootMoves = new MoveList();
+        MoveGenerator.generateLegal(board, rootMoves);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < rootMoves.size(); i++) {
+                int move = rootMoves.get(i);
+                Board copy = board.copyPosition();
+                results.add(executor.submit(() -> {
+                    copy.makeMove(move);
+                    return new Perft(depth - 1).perft(copy, depth - 1);
+                }));
+            }
+
+            long nodes = 0;
+            for (Future<Long> result : results) {
+                nodes += result.get();
+            }
+            return nodes;
+        } catch (Exception e) {
+            throw new IllegalStateException("Erro no perft paralelo: " + e.getMessage(), e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // Roda as posições de referência; retorna true se todas as contagens conferem
+    public static boolean runSuite(int maxDepth, int threads) throws IOException {
+        InputStream input = Perft.class.getResourceAsStream(SUITE_RESOURCE);
+        if (input == null) {
+            System.err.println("Não foi possível encontrar: " + SUITE_RESOURCE);
+            return false;
+        }
+
+        boolean allPassed = true;
+        long totalNodes = 0;
+        long totalNanos = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
+
+                String[] parts = line.split(";");
+                String fen = parts[0].trim();
+                System.out.println(fen);
+                for (int i = 1; i < parts.length; i++) {
+                    String[] entry = parts[i].trim().split("\\s+");
+                    int depth = Integer.parseInt(entry[0].substring(1));
+                    long expected = Long.parseLong(entry[1]);
+                    if (depth > maxDepth)
+                        continue;
+
+                    Board board = Board.fromFen(fen);
+                    long start = System.nanoTime();
+                    long nodes = parallelPerft(board, depth, threads);
+                    long elapsed = System.nanoTime() - start;
+                    totalNodes += nodes;
+                    totalNanos += elapsed;
+
+                    boolean passed = nodes == expected;
+                    allPassed &= passed;
+                    System.out.println("  " + report(depth, nodes, elapsed)
+                            + (passed ? "  OK" : "  ERRO (esperado " + expected + ")"));
+                }
+            }
+        }
+        System.out.println("Total: " + report(0, totalNodes, totalNanos).substring(4)
+                + (allPassed ? "  -- todas as posições conferem" : "  -- HÁ DIFERENÇAS"));
+        return allPassed;
+    }
+
+    private static String report(int depth, long nodes, long nanos) {
+        long millis = Math.max(1, nanos / 1_000_000);
+        long nps = nodes * 1000 / millis;
+        return String.format("D%d nós=%d tempo=%dms nps=%d", depth, nodes, millis, nps);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String mode = args.length > 0 ? args[0] : "suite";
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        switch (mode) {
+            case "suite": {
+                int maxDepth = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+                if (args.length > 2)
+                    threads = Integer.parseInt(args[2]);
+                boolean passed = runSuite(maxDepth, threads);
+                System.exit(passed ? 0 : 1);
+                break;
+            }
+            case "perft": {
+                int depth = Integer.parseInt(args[1]);
+                if (args.length > 2)
+                    threads = Integer.parseInt(args[2]);
+                String fen = args.length > 3 ? joinFen(args, 3) : START_FEN;
+                Board board = Board.fromFen(fen);
+                long start = System.nanoTime();
+                long nodes = parallelPerft(board, depth, threads);
+                System.out.println(report(depth, nodes, System.nanoTime() - start) + " threads=" + threads);
+                break;
+            }
+            case "divide": {
+                int depth = Integer.parseInt(args[1]);
+                String fen = args.length > 2 ? joinFen(args, 2) : START_FEN;
+                Board board = Board.fromFen(fen);
+                long start = System.nanoTime();
+                long nodes = new Perft(depth).divide(board, depth);
+                System.out.println(report(depth, nodes, System.nanoTime() - start));
+                break;
+            }
+            default:
+                System.err.println("Modos: suite [profundidade] [threads] | perft profundidade [threads] [FEN]"
+                        + " | divide profundidade [FEN]");
+                System.exit(2);
+        }
+    }
+
+    // Permite passar a FEN sem aspas (campos separados em vários argumentos)
+    private static String joinFen(String[] args, int start) {
+        StringBuilder fen = new StringBuilder();
+        for (int i = start; i < args.length; i++) {
+            if (i > start)
+                fen.append(' ');
+            fen.append(args[i]);
+        }
+        return fen.toString();
+    }
+}
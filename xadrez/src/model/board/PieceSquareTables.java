@@ -0,0 +1,102 @@
+package model.board;
+
+/**
+ * Tabelas peça-casa com o material embutido, separadas em meio-jogo e final.
+ *
+ * As tabelas são montadas a partir das regras posicionais da avaliação
+ * (centro, avanço de peões, cavalos na borda, bispos desenvolvidos) e estão
+ * escritas do ponto de vista das brancas; as pretas usam a casa espelhada.
+ * O Board soma os valores a cada colocação ou remoção de peça, de modo que a
+ * avaliação parte de totais já prontos em vez de percorrer as peças.
+ */
+public final class PieceSquareTables {
+
+    // Valores de material por tipo (PAWN .. KING)
+    private static final int[] PIECE_VALUES = { 100, 300, 300, 500, 900, 10000 };
+
+    // Peso de cada tipo na fase do jogo: 24 com todas as peças, 0 só com peões e reis
+    private static final int[] PHASE_WEIGHTS = { 0, 1, 1, 2, 4, 0 };
+    public static final int MAX_PHASE = 24;
+
+    private static final int[][] MIDGAME = new int[6][64];
+    private static final int[][] ENDGAME = new int[6][64];
+
+    static {
+        for (int type = Bitboards.PAWN; type <= Bitboards.KING; type++) {
+            for (int square = 0; square < 64; square++) {
+                int row = Bitboards.rowOf(square);
+                int col = Bitboards.columnOf(square);
+                int center = centerBonus(row, col);
+                int midgame = PIECE_VALUES[type] + center;
+                int endgame = PIECE_VALUES[type] + center;
+
+                if (type == Bitboards.PAWN) {
+                    // Peões avançados são valiosos, ainda mais no final
+                    midgame += (7 - row) * 5;
+                    endgame += (7 - row) * 10;
+                } else if (type == Bitboards.KNIGHT) {
+                    // Cavalos são melhores no centro, com penalidade na borda
+                    int bonus = row == 0 || row == 7 || col == 0 || col == 7 ? -5 : 15;
+                    midgame += bonus;
+                    endgame += bonus;
+                } else if (type == Bitboards.BISHOP) {
+                    // Bispos desenvolvidos
+                    if (row < 6) {
+                        midgame += 15;
+                        endgame += 15;
+                    }
+                } else if (type == Bitboards.KING) {
+                    // No final o rei deve ir para o centro
+                    endgame += center;
+                }
+
+                MIDGAME[type][square] = midgame;
+                ENDGAME[type][square] = endgame;
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+
+    // Ocupação do centro: casa da posição e controle do centro da avaliação
+    private static int centerBonus(int row, int col) {
+        if (row >= 3 && row <= 4 && col >= 3 && col <= 4)
+            return 20 + 20 + 5; // Centro forte
+        if (row >= 2 && row <= 5 && col >= 2 && col <= 5)
+            return 10 + 5; // Centro expandido
+        return 0;
+    }
+
+    // Casa vista pelas brancas (as pretas usam a linha espelhada)
+    private static int relativeSquare(int code, int square) {
+        return Bitboards.isWhiteCode(code) ? square : square ^ 56;
+    }
+
+    // Valor de meio-jogo de uma peça (código em Bitboards) na casa, positivo para as brancas
+    public static int midgame(int code, int square) {
+        int value = MIDGAME[Bitboards.typeOfCode(code)][relativeSquare(code, square)];
+        return Bitboards.isWhiteCode(code) ? value : -value;
+    }
+
+    // Valor de final de uma peça na casa, positivo para as brancas
+    public static int endgame(int code, int square) {
+        int value = ENDGAME[Bitboards.typeOfCode(code)][relativeSquare(code, square)];
+        return Bitboards.isWhiteCode(code) ? value : -value;
+    }
+
+    public static int phaseWeight(int code) {
+        return PHASE_WEIGHTS[Bitboards.typeOfCode(code)];
+    }
+
+    // Valor de material de um tipo de peça
+    public static int pieceValue(int type) {
+        return PIECE_VALUES[type];
+    }
+
+    // Interpola os totais de meio-jogo e final pela fase (limitada a MAX_PHASE)
+    public static int taper(int midgame, int endgame, int phase) {
+        phase = Math.min(phase, MAX_PHASE);
+        return (midgame * phase + endgame * (MAX_PHASE - phase)) / MAX_PHASE;
+    }
+}
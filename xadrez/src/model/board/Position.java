@@ -1,29 +1,47 @@
 package model.board;
 
-public class Position {
-    private int row;
-    private int column;
+public final class Position {
+    // Tabela canônica: uma única instância por casa (row * 8 + column)
+    private static final Position[] SQUARES = new Position[64];
 
-    public Position(int row, int column) {
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new Position(square >>> 3, square & 7);
+        }
+    }
+
+    private final int row;
+    private final int column;
+
+    private Position(int row, int column) {
         this.row = row;
         this.column = column;
     }
 
-    // Getters e setters
-    public int getRow() {
-        return row;
+    // Retorna a instância canônica da casa, ou null se estiver fora do tabuleiro
+    public static Position of(int row, int column) {
+        if (row < 0 || row >= 8 || column < 0 || column >= 8)
+            return null;
+        return SQUARES[row * 8 + column];
     }
 
-    public void setRow(int row) {
-        this.row = row;
+    // Retorna a instância canônica da casa indexada por square = row * 8 + column
+    public static Position of(int square) {
+        return SQUARES[square];
+    }
+
+    // Getters
+    public int getRow() {
+        return row;
     }
 
     public int getColumn() {
         return column;
     }
 
-    public void setColumn(int column) {
-        this.column = column;
+    // Índice da casa (row * 8 + column), o mesmo usado nos bitboards
+    public int getSquare() {
+        return row * 8 + column;
     }
 
     // Métodos auxiliares
@@ -41,6 +59,11 @@ public class Position {
         return row == position.row && column == position.column;
     }
 
+    @Override
+    public int hashCode() {
+        return getSquare();
+    }
+
     @Override
     public String toString() {
         return (char) ('a' + column) + "" + (8 - row);
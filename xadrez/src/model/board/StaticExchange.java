@@ -0,0 +1,113 @@
+package model.board;
+
+/**
+ * Avaliação estática de trocas (SEE).
+ *
+ * Simula a sequência de capturas na casa de destino de um lance, sempre com
+ * o atacante menos valioso de cada lado, e devolve o saldo de material para
+ * quem faz o lance supondo que cada lado pode parar de capturar quando não
+ * lhe convier. A cada captura a peça sai da ocupação e os ataques de bispos,
+ * torres e damas são recalculados, revelando os atacantes em raio-x atrás
+ * da peça que saiu.
+ *
+ * As versões que recebem o vetor de ganhos usam um vetor do chamador (com
+ * pelo menos MAX_EXCHANGES posições) para não alocar a cada chamada na busca.
+ */
+public final class StaticExchange {
+
+    // Máximo de capturas em uma casa (32 peças no tabuleiro)
+    public static final int MAX_EXCHANGES = 32;
+
+    private StaticExchange() {
+    }
+
+    // Saldo de material da troca iniciada pelo lance (0 para roque)
+    public static int evaluate(Board board, int move) {
+        return evaluate(board, move, new int[MAX_EXCHANGES]);
+    }
+
+    // Como evaluate, usando o vetor de ganhos do chamador como área de trabalho
+    public static int evaluate(Board board, int move, int[] gain) {
+        if (PackedMove.isCastling(move))
+            return 0;
+
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int moverCode = board.getPieceCodeAt(from);
+        boolean white = Bitboards.isWhiteCode(moverCode);
+        long occupied = board.getOccupancy() & ~Bitboards.bit(from);
+
+        int pieceOnSquare = Bitboards.typeOfCode(moverCode);
+        if (PackedMove.isEnPassant(move)) {
+            gain[0] = PieceSquareTables.pieceValue(Bitboards.PAWN);
+            // O peão capturado fica ao lado, na linha de origem
+            occupied &= ~Bitboards.bit(Bitboards.square(Bitboards.rowOf(from), Bitboards.columnOf(to)));
+        } else {
+            int victimCode = board.getPieceCodeAt(to);
+            gain[0] = victimCode == Bitboards.NO_PIECE ? 0 : PieceSquareTables.pieceValue(Bitboards.typeOfCode(victimCode));
+        }
+        if (PackedMove.isPromotion(move)) {
+            pieceOnSquare = PackedMove.promotionType(move);
+            gain[0] += PieceSquareTables.pieceValue(pieceOnSquare) - PieceSquareTables.pieceValue(Bitboards.PAWN);
+        }
+
+        long bishopsQueens = board.getBitboard(Bitboards.BISHOP, true) | board.getBitboard(Bitboards.BISHOP, false)
+                | board.getBitboard(Bitboards.QUEEN, true) | board.getBitboard(Bitboards.QUEEN, false);
+        long rooksQueens = board.getBitboard(Bitboards.ROOK, true) | board.getBitboard(Bitboards.ROOK, false)
+                | board.getBitboard(Bitboards.QUEEN, true) | board.getBitboard(Bitboards.QUEEN, false);
+        long attackers = (board.attackersTo(to, true, occupied) | board.attackersTo(to, false, occupied)) & occupied;
+
+        boolean side = !white;
+        int depth = 0;
+        while (true) {
+            // Atacante menos valioso do lado que responde
+            long sideAttackers = attackers & board.getOccupancy(side);
+            if (sideAttackers == 0)
+                break;
+            int type = Bitboards.PAWN;
+            long candidates = 0;
+            for (; type <= Bitboards.KING; type++) {
+                candidates = sideAttackers & board.getBitboard(type, side);
+                if (candidates != 0)
+                    break;
+            }
+
+            long attackerBit = candidates & -candidates;
+            long nextOccupied = occupied & ~attackerBit;
+            long nextAttackers = attackers & ~attackerBit;
+            if (type == Bitboards.PAWN || type == Bitboards.BISHOP || type == Bitboards.QUEEN)
+                nextAttackers |= Attacks.bishopAttacks(to, nextOccupied) & bishopsQueens & nextOccupied;
+            if (type == Bitboards.ROOK || type == Bitboards.QUEEN)
+                nextAttackers |= Attacks.rookAttacks(to, nextOccupied) & rooksQueens & nextOccupied;
+
+            // O rei só captura se a casa não continuar atacada pelo outro lado
+            if (type == Bitboards.KING && (nextAttackers & board.getOccupancy(!side)) != 0)
+                break;
+
+            depth++;
+            gain[depth] = PieceSquareTables.pieceValue(pieceOnSquare) - gain[depth - 1];
+            occupied = nextOccupied;
+            attackers = nextAttackers;
+            pieceOnSquare = type;
+            side = !side;
+            if (depth == MAX_EXCHANGES - 1)
+                break;
+        }
+
+        // Cada lado escolhe entre capturar ou parar, do fim da sequência para o início
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    // Verifica se a troca do lance rende pelo menos o limite informado
+    public static boolean isAtLeast(Board board, int move, int threshold) {
+        return evaluate(board, move) >= threshold;
+    }
+
+    public static boolean isAtLeast(Board board, int move, int threshold, int[] gain) {
+        return evaluate(board, move, gain) >= threshold;
+    }
+}
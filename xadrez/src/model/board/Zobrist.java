@@ -0,0 +1,67 @@
+package model.board;
+
+import java.util.Random;
+
+/**
+ * Chaves aleatórias de 64 bits para o hash de Zobrist das posições.
+ *
+ * O hash de uma posição é o XOR das chaves de cada peça em sua casa, da vez
+ * das pretas, dos direitos de roque e da coluna de en passant. Como o XOR é
+ * a sua própria inversa, o Board atualiza o valor a cada alteração sem
+ * precisar recalcular o tabuleiro inteiro.
+ */
+public final class Zobrist {
+
+    // Semente fixa para que o mesmo tabuleiro gere sempre a mesma chave
+    private static final long SEED = 0x5A0B1157L;
+
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        Random random = new Random(SEED);
+        for (int code = 0; code < 12; code++) {
+            for (int square = 0; square < 64; square++) {
+                PIECE_SQUARE[code][square] = random.nextLong();
+            }
+        }
+        // Cada combinação de direitos de roque é o XOR das chaves dos direitos individuais
+        long[] rights = new long[4];
+        for (int i = 0; i < 4; i++) {
+            rights[i] = random.nextLong();
+        }
+        for (int mask = 0; mask < 16; mask++) {
+            for (int i = 0; i < 4; i++) {
+                if ((mask & (1 << i)) != 0)
+                    CASTLING[mask] ^= rights[i];
+            }
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    // Chave de uma peça (código em Bitboards) em uma casa
+    public static long piece(int code, int square) {
+        return PIECE_SQUARE[code][square];
+    }
+
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    // Chave da coluna de en passant (casa -1 não contribui para o hash)
+    public static long enPassant(int square) {
+        return square < 0 ? 0L : EN_PASSANT_FILE[Bitboards.columnOf(square)];
+    }
+
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+}
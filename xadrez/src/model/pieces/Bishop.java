@@ -1,7 +1,7 @@
 package model.pieces;
 
-import java.util.ArrayList;
 import java.util.List;
+import model.board.Attacks;
 import model.board.Board;
 import model.board.Position;
 
@@ -12,25 +12,13 @@ public class Bishop extends Piece {
     }
 
     @Override
-public List<Position> getPossibleMoves() {
-    List<Position> moves = new ArrayList<>();
-    int[][] directions = {{-1,-1},{-1,1},{1,-1},{1,1}};
-    for (int[] d : directions) {
-        int r = position.getRow(), c = position.getColumn();
-        while (true) {
-            r += d[0]; c += d[1];
-            Position np = new Position(r, c);
-            if (!np.isValid()) break;
-            Piece at = board.getPieceAt(np);
-            if (at == null) { moves.add(np); }
-            else { if (at.isWhite() != isWhite) moves.add(np); break; }
-        }
+    public List<Position> getPossibleMoves() {
+        long targets = Attacks.bishopAttacks(getSquare(), board.getOccupancy()) & ~board.getOccupancy(isWhite);
+        return toPositions(targets);
     }
-    return moves;
-}
 
     @Override
     public String getSymbol() {
         return "B";
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,8 @@
 package model.pieces;
 
-import java.util.ArrayList;
 import java.util.List;
+import model.board.Attacks;
+import model.board.Bitboards;
 import model.board.Board;
 import model.board.Position;
 
@@ -11,37 +12,30 @@ public class Pawn extends Piece {
         super(board, isWhite);
     }
 
-   @Override
-public List<Position> getPossibleMoves() {
-    List<Position> moves = new ArrayList<>();
-    int dir = isWhite ? -1 : 1;
-
-    Position front = new Position(position.getRow()+dir, position.getColumn());
-    if (front.isValid() && board.isPositionEmpty(front)) {
-        moves.add(front);
-
-        if ((isWhite && position.getRow()==6) || (!isWhite && position.getRow()==1)) {
-            Position doubleFront = new Position(position.getRow()+2*dir, position.getColumn());
-            if (board.isPositionEmpty(doubleFront)) moves.add(doubleFront);
+    @Override
+    public List<Position> getPossibleMoves() {
+        int square = getSquare();
+        int dir = isWhite ? -8 : 8;
+        long empty = ~board.getOccupancy();
+        long targets = 0;
+
+        int front = square + dir;
+        if (front >= 0 && front < 64 && (empty & Bitboards.bit(front)) != 0) {
+            targets |= Bitboards.bit(front);
+
+            int startRow = isWhite ? 6 : 1;
+            int doubleFront = front + dir;
+            if (position.getRow() == startRow && (empty & Bitboards.bit(doubleFront)) != 0)
+                targets |= Bitboards.bit(doubleFront);
         }
-    }
 
-    // capturas diagonais
-    Position capL = new Position(position.getRow()+dir, position.getColumn()-1);
-    Position capR = new Position(position.getRow()+dir, position.getColumn()+1);
-    if (capL.isValid()) {
-        Piece at = board.getPieceAt(capL);
-        if (at != null && at.isWhite()!=isWhite) moves.add(capL);
+        // capturas diagonais
+        targets |= Attacks.pawnAttacks(square, isWhite) & board.getOccupancy(!isWhite);
+        return toPositions(targets);
     }
-    if (capR.isValid()) {
-        Piece at = board.getPieceAt(capR);
-        if (at != null && at.isWhite()!=isWhite) moves.add(capR);
-    }
-    return moves;
-}
 
     @Override
     public String getSymbol() {
         return "P";
     }
-}
\ No newline at end of file
+}
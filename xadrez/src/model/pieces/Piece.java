@@ -1,6 +1,8 @@
 package model.pieces;
 
+import java.util.ArrayList;
 import java.util.List;
+import model.board.Bitboards;
 import model.board.Position;
 
 public abstract class Piece {
@@ -37,6 +39,11 @@ public abstract class Piece {
         return hasMoved;
     }
 
+    // Usado pelo tabuleiro ao desfazer lances
+    public void setHasMoved(boolean hasMoved) {
+        this.hasMoved = hasMoved;
+    }
+
     public abstract List<Position> getPossibleMoves();
 
     public boolean canMoveTo(Position position) {
@@ -45,4 +52,20 @@ public abstract class Piece {
     }
 
     public abstract String getSymbol();
+
+    // Casa da peça no índice de bitboard (row * 8 + column)
+    protected int getSquare() {
+        return position.getSquare();
+    }
+
+    // Converte um bitboard de destinos em lista de posições
+    protected List<Position> toPositions(long targets) {
+        List<Position> moves = new ArrayList<>(Bitboards.popCount(targets));
+        while (targets != 0) {
+            int square = Bitboards.lsb(targets);
+            moves.add(Position.of(square));
+            targets = Bitboards.popLsb(targets);
+        }
+        return moves;
+    }
 }
\ No newline at end of file
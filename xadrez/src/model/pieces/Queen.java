@@ -1,7 +1,7 @@
 package model.pieces;
 
-import java.util.ArrayList;
 import java.util.List;
+import model.board.Attacks;
 import model.board.Board;
 import model.board.Position;
 
@@ -13,43 +13,13 @@ public class Queen extends Piece {
 
     @Override
     public List<Position> getPossibleMoves() {
-        List<Position> moves = new ArrayList<>();
-
-        // Combina as direções da torre e do bispo
-        int[][] directions = {
-                { -1, 0 }, { 0, 1 }, { 1, 0 }, { 0, -1 }, // Torre
-                { -1, -1 }, { -1, 1 }, { 1, -1 }, { 1, 1 } // Bispo
-        };
-
-        for (int[] direction : directions) {
-            int row = position.getRow();
-            int col = position.getColumn();
-
-            while (true) {
-                row += direction[0];
-                col += direction[1];
-                Position newPos = new Position(row, col);
-
-                if (!newPos.isValid())
-                    break;
-
-                Piece pieceAt = board.getPieceAt(newPos);
-                if (pieceAt == null) {
-                    moves.add(newPos);
-                } else if (pieceAt.isWhite() != isWhite) {
-                    moves.add(newPos);
-                    break;
-                } else {
-                    break;
-                }
-            }
-        }
-
-        return moves;
+        // Combina os ataques da torre e do bispo
+        long targets = Attacks.queenAttacks(getSquare(), board.getOccupancy()) & ~board.getOccupancy(isWhite);
+        return toPositions(targets);
     }
 
     @Override
     public String getSymbol() {
         return "Q";
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,7 @@
 package model.pieces;
 
-import java.util.ArrayList;
 import java.util.List;
+import model.board.Attacks;
 import model.board.Board;
 import model.board.Position;
 
@@ -13,31 +13,12 @@ public class Rook extends Piece {
 
     @Override
     public List<Position> getPossibleMoves() {
-        List<Position> moves = new ArrayList<>();
-        int[][] dirs = { { -1, 0 }, { 0, 1 }, { 1, 0 }, { 0, -1 } };
-        for (int[] d : dirs) {
-            int r = position.getRow(), c = position.getColumn();
-            while (true) {
-                r += d[0];
-                c += d[1];
-                Position np = new Position(r, c);
-                if (!np.isValid())
-                    break;
-                Piece at = board.getPieceAt(np);
-                if (at == null)
-                    moves.add(np);
-                else {
-                    if (at.isWhite() != isWhite)
-                        moves.add(np);
-                    break;
-                }
-            }
-        }
-        return moves;
+        long targets = Attacks.rookAttacks(getSquare(), board.getOccupancy()) & ~board.getOccupancy(isWhite);
+        return toPositions(targets);
     }
 
     @Override
     public String getSymbol() {
         return "R";
     }
-}
\ No newline at end of file
+}
@@ -5,12 +5,16 @@ import controller.Game;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import javax.swing.*;
+import model.board.Board;
 import model.board.Move;
 import model.board.Position;
 import model.pieces.Piece;
@@ -22,6 +26,7 @@ public class ChessGUI extends JFrame {
     private JButton[][] squares;
     private Map<String, ImageIcon> pieceIcons;
     private JTextArea moveHistoryTextArea;
+    private JTextArea aiLineTextArea;
     private JLabel turnLabel;
     private Color lightSquareColor;
     private Color darkSquareColor;
@@ -29,6 +34,8 @@ public class ChessGUI extends JFrame {
     private ChessAI ai;
     private boolean playAgainstAI;
     private boolean aiPlaysWhite;
+    // Busca da IA em andamento (null se ela não estiver pensando)
+    private SwingWorker<Move, Void> aiWorker;
     
     // Temporizador
     private int whiteTimeSeconds = 600; // 10 minutos
@@ -90,6 +97,8 @@ public class ChessGUI extends JFrame {
     }
     
     private void handleTimeOut(boolean isWhite) {
+        stopAIMove();
+
         // Conta peças para determinar o vencedor
         int whitePieces = countPieces(true);
         int blackPieces = countPieces(false);
@@ -117,21 +126,18 @@ public class ChessGUI extends JFrame {
     }
     
     private int countPieces(boolean isWhite) {
-        int count = 0;
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = game.getBoard().getPieceAt(new Position(row, col));
-                if (piece != null && piece.isWhite() == isWhite) {
-                    count++;
-                }
-            }
-        }
-        return count;
+        return game.getBoard().countPieces(isWhite);
     }
 
     private void initializeGUI() {
         setTitle("Jogo de Xadrez em Java");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                stopAIMove();
+            }
+        });
         setSize(750, 630); // ajuste para caber painel direito
         setLayout(new BorderLayout());
 
@@ -169,7 +175,9 @@ public class ChessGUI extends JFrame {
         JPanel controlPanel = new JPanel();
         JButton newGameButton = new JButton("Novo Jogo");
         newGameButton.addActionListener(e -> {
+            stopAIMove();
             game = new Game();
+            ai = new ChessAI(game);
             updateBoardDisplay();
             updateMoveHistory();
             turnLabel.setText("Turno: Brancas");
@@ -178,6 +186,7 @@ public class ChessGUI extends JFrame {
 
         JButton undoButton = new JButton("Desfazer");
         undoButton.addActionListener(e -> {
+            stopAIMove();
             boolean undone = game.undoLastMove();
             if (undone) {
                 updateBoardDisplay();
@@ -210,7 +219,9 @@ public class ChessGUI extends JFrame {
                 File fileToLoad = fileChooser.getSelectedFile();
                 Game loadedGame = Game.loadGame(fileToLoad.getAbsolutePath());
                 if (loadedGame != null) {
+                    stopAIMove();
                     game = loadedGame;
+                    ai = new ChessAI(game);
                     updateBoardDisplay();
                     updateMoveHistory();
                     turnLabel.setText("Turno: " +
@@ -259,6 +270,12 @@ public class ChessGUI extends JFrame {
         moveHistoryTextArea.setEditable(false);
         JScrollPane scrollPane = new JScrollPane(moveHistoryTextArea);
         rightPanel.add(scrollPane, BorderLayout.CENTER);
+        // Linha que a IA espera para a continuação da partida
+        aiLineTextArea = new JTextArea(4, 10);
+        aiLineTextArea.setEditable(false);
+        aiLineTextArea.setLineWrap(true);
+        aiLineTextArea.setWrapStyleWord(true);
+        rightPanel.add(aiLineTextArea, BorderLayout.SOUTH);
         add(rightPanel, BorderLayout.EAST);
 
         setLocationRelativeTo(null);
@@ -273,6 +290,7 @@ public class ChessGUI extends JFrame {
 
         JMenuItem humanVsHuman = new JMenuItem("Humano vs Humano");
         humanVsHuman.addActionListener(e -> {
+            stopAIMove();
             playAgainstAI = false;
             game = new Game();
             ai = new ChessAI(game); // Atualiza a instância da IA com o novo jogo
@@ -284,6 +302,7 @@ public class ChessGUI extends JFrame {
 
         JMenuItem humanVsAI = new JMenuItem("Humano vs Computador (Brancas)");
         humanVsAI.addActionListener(e -> {
+            stopAIMove();
             playAgainstAI = true;
             aiPlaysWhite = false;
             game = new Game();
@@ -296,6 +315,7 @@ public class ChessGUI extends JFrame {
 
         JMenuItem aiVsHuman = new JMenuItem("Computador vs Humano (Pretas)");
         aiVsHuman.addActionListener(e -> {
+            stopAIMove();
             playAgainstAI = true;
             aiPlaysWhite = true;
             game = new Game();
@@ -333,6 +353,7 @@ public class ChessGUI extends JFrame {
         
         JMenuItem newGame = new JMenuItem("Novo Jogo");
         newGame.addActionListener(e -> {
+            stopAIMove();
             game = new Game();
             ai = new ChessAI(game); // Atualiza a instância da IA com o novo jogo
             updateBoardDisplay();
@@ -369,6 +390,57 @@ public class ChessGUI extends JFrame {
         moveHistoryTextArea.setText(sb.toString());
     }
 
+    // A IA calcula seus limites de tempo a partir do próprio relógio, que
+    // continua correndo enquanto ela pensa. A busca roda em segundo plano, em
+    // uma cópia do tabuleiro, para a janela não travar; o lance é jogado na
+    // thread de eventos, seguido de afterMove
+    private void makeAIMove(Runnable afterMove) {
+        // O lance agendado pode ter perdido a vez (desfazer ou novo jogo no intervalo)
+        if (aiWorker != null || game.isWhiteTurn() != aiPlaysWhite || game.isGameOver())
+            return;
+
+        ChessAI searchingAI = ai;
+        int generation = searchingAI.getGeneration();
+        Board position = game.getBoard().copyPosition();
+        long remainingMillis = (aiPlaysWhite ? whiteTimeSeconds : blackTimeSeconds) * 1000L;
+        aiWorker = new SwingWorker<Move, Void>() {
+            @Override
+            protected Move doInBackground() {
+                return searchingAI.chooseMove(position, remainingMillis, generation);
+            }
+
+            @Override
+            protected void done() {
+                // Busca interrompida (novo jogo, desfazer, tempo esgotado): descarta o lance
+                if (aiWorker != this)
+                    return;
+                aiWorker = null;
+
+                Move move;
+                try {
+                    move = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Erro na busca da IA: " + e.getMessage());
+                    return;
+                }
+                if (move != null)
+                    game.movePieceDirect(move.getFrom(), move.getTo(), move.getPromotionType());
+                aiLineTextArea.setText("Linha da IA:\n" + searchingAI.getPrincipalVariationText());
+                afterMove.run();
+            }
+        };
+        aiWorker.execute();
+    }
+
+    // Interrompe a busca da IA em andamento, se houver
+    private void stopAIMove() {
+        if (aiWorker != null) {
+            aiWorker.cancel(false);
+            aiWorker = null;
+            ai.stop();
+        }
+    }
+
     private void playAIMoveIfNeeded() {
         if (!playAgainstAI)
             return;
@@ -376,9 +448,8 @@ public class ChessGUI extends JFrame {
         // Checa se é vez da IA
         if (game.isWhiteTurn() == aiPlaysWhite && !game.isGameOver()) {
             Timer timer = new Timer(500, e -> {
-                ai.makeMove();
-                // Atualiza a interface gráfica imediatamente após o movimento da IA
-                SwingUtilities.invokeLater(() -> {
+                // Atualiza a interface gráfica logo após o movimento da IA
+                makeAIMove(() -> {
                     updateBoardDisplay();
                     updateMoveHistory();
                     turnLabel.setText("Turno: " + (game.isWhiteTurn() ? "Brancas" : "Pretas"));
@@ -421,7 +492,7 @@ public class ChessGUI extends JFrame {
     private void updateBoardDisplay() {
         for (int row = 0; row < 8; row++) {
             for (int col = 0; col < 8; col++) {
-                Piece piece = game.getBoard().getPieceAt(new Position(row, col));
+                Piece piece = game.getBoard().getPieceAt(Position.of(row, col));
                 if (piece == null) {
                     squares[row][col].setIcon(null);
                 } else {
@@ -447,7 +518,11 @@ public class ChessGUI extends JFrame {
     }
 
     private void handleSquareClick(int row, int col) {
-        Position position = new Position(row, col);
+        // Enquanto a IA pensa o tabuleiro não aceita lances
+        if (aiWorker != null)
+            return;
+
+        Position position = Position.of(row, col);
         Piece selectedPiece = game.getSelectedPiece();
 
         clearHighlights();
@@ -489,9 +564,8 @@ public class ChessGUI extends JFrame {
 
                 if (playAgainstAI && game.isWhiteTurn() == aiPlaysWhite) {
                     Timer timer = new Timer(500, e -> {
-                        ai.makeMove();
-                        // Atualiza a interface gráfica imediatamente após o movimento da IA
-                        SwingUtilities.invokeLater(() -> {
+                        // Atualiza a interface gráfica logo após o movimento da IA
+                        makeAIMove(() -> {
                             // Verifica se houve captura para tocar o som apropriado
                             boolean wasCapture = false;
                             List<Move> history = game.getMoveHistory();
@@ -545,7 +619,8 @@ public class ChessGUI extends JFrame {
         squares[from.getRow()][from.getColumn()]
                 .setBorder(BorderFactory.createLineBorder(Color.BLUE, 3));
 
-        List<Position> moves = piece.getPossibleMoves();
+        // Apenas destinos legais (considera xeque, cravadas, roque e en passant)
+        List<Position> moves = game.getLegalMoves(from);
         if (moves != null) {
             for (Position pos : moves) {
                 Piece targetPiece = game.getBoard().getPieceAt(pos);